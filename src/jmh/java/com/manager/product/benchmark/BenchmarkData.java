@@ -0,0 +1,130 @@
+package com.manager.product.benchmark;
+
+import com.manager.product.ProductApplication;
+import com.manager.product.dto.CreateProductDto;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.dto.UpdateProductDto;
+import com.manager.product.entity.Product;
+import com.manager.product.service.ProductService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Jeux de données partagés par les benchmarks
+ */
+final class BenchmarkData {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Food & Beverages"};
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    private BenchmarkData() {
+    }
+
+    static Product product(long id) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 10, 30);
+        return Product.builder()
+                .id(id)
+                .name("Produit de test " + id)
+                .description("Description du produit " + id + " utilisée pour mesurer le coût de la sérialisation")
+                .price(new BigDecimal("199.99"))
+                .quantityInStock((int) (id % 50))
+                .category(CATEGORIES[(int) (id % CATEGORIES.length)])
+                .sku("BENCH-" + id)
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    static ProductResponseDto responseDto(long id) {
+        Product product = product(id);
+        return ProductResponseDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantityInStock(product.getQuantityInStock())
+                .category(product.getCategory())
+                .sku(product.getSku())
+                .active(product.getActive())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .available(product.isAvailable())
+                .build();
+    }
+
+    static List<ProductResponseDto> responseDtos(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(BenchmarkData::responseDto).toList();
+    }
+
+    static CreateProductDto createDto(long index) {
+        return CreateProductDto.builder()
+                .name("Produit de test " + index)
+                .description("Description du produit " + index)
+                .price(new BigDecimal("49.90"))
+                .quantityInStock((int) (index % 50))
+                .category(CATEGORIES[(int) (index % CATEGORIES.length)])
+                .sku("BENCH-" + index)
+                .active(true)
+                .build();
+    }
+
+    static UpdateProductDto updateDto() {
+        return UpdateProductDto.builder()
+                .name("Produit renommé")
+                .price(new BigDecimal("59.90"))
+                .quantityInStock(12)
+                .category("Books")
+                .build();
+    }
+
+    /**
+     * Démarre l'application sur une base H2 embarquée, sans cache, Kafka ni relais d'outbox
+     */
+    static ConfigurableApplicationContext startApplication(String databaseName) {
+        // Arguments de ligne de commande : ils priment sur application.properties
+        return new SpringApplicationBuilder(ProductApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--spring.cache.type=none",
+                        "--spring.kafka.admin.auto-create=false",
+                        "--app.outbox.relay.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.manager.product=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=WARN");
+    }
+
+    /**
+     * Insère un catalogue de produits par lots et retourne l'ID du premier produit créé
+     */
+    static long seedCatalogue(ProductService productService, int size) {
+        long firstId = 0;
+        for (long from = 0; from < size; from += SEED_BATCH_SIZE) {
+            List<CreateProductDto> batch = LongStream.range(from, Math.min(from + SEED_BATCH_SIZE, size))
+                    .mapToObj(BenchmarkData::createDto)
+                    .toList();
+            List<ProductResponseDto> created = productService.createProducts(batch);
+            if (from == 0) {
+                firstId = created.get(0).getId();
+            }
+        }
+        return firstId;
+    }
+}
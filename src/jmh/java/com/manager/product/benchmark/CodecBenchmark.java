@@ -0,0 +1,101 @@
+package com.manager.product.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.cache.CachedPage;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.serialization.ProductEventDeserializer;
+import com.manager.product.serialization.ProductEventSerializer;
+import com.manager.product.serialization.SerializationFormat;
+import com.manager.product.serialization.VersionedRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparaison JSON / Smile des valeurs du cache Redis (produit seul et page de 20) et des événements Kafka.
+ * Les tailles encodées sont affichées au démarrage de chaque essai.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    private static final String TOPIC = "product-updated";
+
+    @Param({"JSON", "SMILE"})
+    public SerializationFormat format;
+
+    private ProductResponseDto product;
+    private CachedPage page;
+    private VersionedRedisSerializer redisSerializer;
+    private ProductEventSerializer eventSerializer;
+    private ProductEventDeserializer eventDeserializer;
+    private byte[] encodedProduct;
+    private byte[] encodedPage;
+    private byte[] encodedEvent;
+
+    @Setup
+    public void setUp() {
+        // Même configuration que l'ObjectMapper dédié au cache dans RedisConfig (dates ISO-8601)
+        ObjectMapper cacheObjectMapper = Jackson2ObjectMapperBuilder.json().build();
+        product = BenchmarkData.responseDto(42);
+        page = new CachedPage(new ArrayList<>(BenchmarkData.responseDtos(20)), 10_000);
+
+        redisSerializer = new VersionedRedisSerializer(cacheObjectMapper, format);
+        eventSerializer = new ProductEventSerializer();
+        eventSerializer.configure(Map.of(ProductEventSerializer.FORMAT_CONFIG, format.name()), false);
+        eventDeserializer = new ProductEventDeserializer();
+
+        encodedProduct = redisSerializer.serialize(product);
+        encodedPage = redisSerializer.serialize(page);
+        encodedEvent = eventSerializer.serialize(TOPIC, product);
+        System.out.printf("%n%s : produit en cache %d octets, page de 20 en cache %d octets, événement Kafka %d octets%n",
+                format, encodedProduct.length, encodedPage.length, encodedEvent.length);
+    }
+
+    @Benchmark
+    public byte[] cacheSerializeProduct() {
+        return redisSerializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object cacheDeserializeProduct() {
+        return redisSerializer.deserialize(encodedProduct);
+    }
+
+    @Benchmark
+    public byte[] cacheSerializePage() {
+        return redisSerializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object cacheDeserializePage() {
+        return redisSerializer.deserialize(encodedPage);
+    }
+
+    @Benchmark
+    public byte[] eventSerialize() {
+        return eventSerializer.serialize(TOPIC, product);
+    }
+
+    @Benchmark
+    public ProductResponseDto eventDeserialize() {
+        return eventDeserializer.deserialize(TOPIC, encodedEvent);
+    }
+}
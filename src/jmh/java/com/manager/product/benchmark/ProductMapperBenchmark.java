@@ -0,0 +1,51 @@
+package com.manager.product.benchmark;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.dto.UpdateProductDto;
+import com.manager.product.entity.Product;
+import com.manager.product.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des conversions entité / DTO de ProductMapper
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private Product product;
+    private UpdateProductDto updateDto;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(42);
+        updateDto = BenchmarkData.updateDto();
+    }
+
+    @Benchmark
+    public ProductResponseDto toResponseDto() {
+        return productMapper.toResponseDto(product);
+    }
+
+    @Benchmark
+    public Product updateEntityFromDto() {
+        productMapper.updateEntityFromDto(updateDto, product);
+        return product;
+    }
+}
@@ -0,0 +1,84 @@
+package com.manager.product.benchmark;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appels de bout en bout de ProductService sur une base H2 embarquée, sans cache ni Kafka :
+ * mesure le coût applicatif et JPA hors réseau
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int CATALOGUE_SIZE = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("benchmark");
+        productService = context.getBean(ProductService.class);
+
+        firstId = BenchmarkData.seedCatalogue(productService, CATALOGUE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextLong(CATALOGUE_SIZE);
+    }
+
+    @Benchmark
+    public ProductResponseDto getProductById() {
+        return productService.getProductById(randomId());
+    }
+
+    @Benchmark
+    public Page<ProductResponseDto> getAllProductsFirstPage() {
+        return productService.getAllProducts(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<ProductResponseDto> getAllProductsDeepPage() {
+        return productService.getAllProducts(PageRequest.of(CATALOGUE_SIZE / 20 - 1, 20));
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> getProductsByCategory() {
+        return productService.getProductsByCategory("Books");
+    }
+
+    @Benchmark
+    public ProductResponseDto increaseStock() {
+        return productService.updateStock(randomId(), 1, true);
+    }
+}
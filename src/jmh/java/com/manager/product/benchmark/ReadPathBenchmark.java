@@ -0,0 +1,85 @@
+package com.manager.product.benchmark;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.mapper.ProductMapper;
+import com.manager.product.repository.ProductRepository;
+import com.manager.product.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture d'un grand nombre de produits : entités managées converties par ProductMapper
+ * contre projection JPQL directe en DTO, dans une transaction en lecture seule comme dans ProductService.
+ * L'écart d'allocation se lit avec le profileur GC : -Djmh.args="ReadPathBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    private static final int CATALOGUE_SIZE = 20_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductMapper productMapper;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("read-path");
+        productRepository = context.getBean(ProductRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        BenchmarkData.seedCatalogue(context.getBean(ProductService.class), CATALOGUE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> activeProductsAsEntities() {
+        return readOnlyTransaction.execute(status -> productRepository.findByActiveTrue().stream()
+                .map(productMapper::toResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> activeProductsAsProjection() {
+        return readOnlyTransaction.execute(status -> productRepository.findActiveResponses());
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> categoryAsEntities() {
+        return readOnlyTransaction.execute(status -> productRepository.findByCategoryIgnoreCaseAndActiveTrue("Books").stream()
+                .map(productMapper::toResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> categoryAsProjection() {
+        return readOnlyTransaction.execute(status -> productRepository.findActiveResponsesByCategory("Books"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.manager.product.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.config.ProductCacheProperties;
+import com.manager.product.config.RedisConfig;
+import com.manager.product.dto.ProductResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la sérialisation JSON des pages HTTP et du sérialiseur de valeurs Redis construit par RedisConfig
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper httpObjectMapper;
+    private ProductResponseDto product;
+    private RedisSerializationContext.SerializationPair<Object> redisValueSerializer;
+    private ByteBuffer serializedProduct;
+
+    @Setup
+    public void setUp() {
+        // Même configuration que l'ObjectMapper de Spring Boot (dates ISO-8601)
+        httpObjectMapper = Jackson2ObjectMapperBuilder.json().build();
+        product = BenchmarkData.responseDto(42);
+        redisValueSerializer = new RedisConfig().cacheConfiguration(httpObjectMapper, new ProductCacheProperties()).getValueSerializationPair();
+        serializedProduct = redisValueSerializer.write(product);
+    }
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+
+        @Param({"20", "100"})
+        public int pageSize;
+
+        Page<ProductResponseDto> page;
+
+        @Setup
+        public void setUp() {
+            page = new PageImpl<>(BenchmarkData.responseDtos(pageSize), PageRequest.of(0, pageSize), 10_000);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage(PageState state) throws Exception {
+        return httpObjectMapper.writeValueAsBytes(state.page);
+    }
+
+    @Benchmark
+    public ByteBuffer redisSerializeProduct() {
+        return redisValueSerializer.write(product);
+    }
+
+    @Benchmark
+    public Object redisDeserializeProduct() {
+        return redisValueSerializer.read(serializedProduct.duplicate());
+    }
+}
@@ -0,0 +1,74 @@
+package com.manager.product.benchmark;
+
+import com.manager.product.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de Product.reduceStock sans concurrence et quand plusieurs threads modifient le même produit.
+ * L'entité n'est pas thread-safe : l'accès partagé est sérialisé par un verrou, comme le ferait un verrou de ligne.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockContentionBenchmark {
+
+    private static final int RESTOCK = 1_000_000;
+
+    @State(Scope.Thread)
+    public static class OwnProduct {
+        Product product;
+
+        @Setup
+        public void setUp() {
+            product = BenchmarkData.product(1);
+            product.setQuantityInStock(RESTOCK);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedProduct {
+        Product product;
+
+        @Setup
+        public void setUp() {
+            product = BenchmarkData.product(1);
+            product.setQuantityInStock(RESTOCK);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int reduceStockUncontended(OwnProduct state) {
+        return reduce(state.product);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int reduceStockContended(SharedProduct state) {
+        synchronized (state.product) {
+            return reduce(state.product);
+        }
+    }
+
+    private static int reduce(Product product) {
+        if (product.getQuantityInStock() < 1) {
+            product.increaseStock(RESTOCK);
+        }
+        product.reduceStock(1);
+        return product.getQuantityInStock();
+    }
+}
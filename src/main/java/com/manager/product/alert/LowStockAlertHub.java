@@ -0,0 +1,141 @@
+package com.manager.product.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.config.LowStockAlertProperties;
+import com.manager.product.dto.LowStockEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Abonnements SSE au flux de stock faible de cette instance. Les variations de stock de toutes les instances
+ * arrivent par Redis pub/sub et sont distribuées aux abonnés dont elles franchissent le seuil.
+ * Une reconnexion avec Last-Event-ID rejoue les événements manqués depuis l'historique Redis.
+ */
+@Slf4j
+@Component
+public class LowStockAlertHub implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final LowStockAlertProperties properties;
+    private final Set<LowStockSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    public LowStockAlertHub(StringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            LowStockAlertProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        Gauge.builder("low.stock.subscribers", subscriptions, Set::size)
+                .description("Abonnés au flux de stock faible sur cette instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre un abonnement pour un seuil donné, en reprenant après lastEventId s'il est fourni
+     */
+    public SseEmitter subscribe(int threshold, Long lastEventId) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Le flux des alertes de stock faible est désactivé");
+        }
+        if (threshold < 0 || threshold > properties.getMaxThreshold()) {
+            throw new IllegalArgumentException("Le seuil doit être compris entre 0 et " + properties.getMaxThreshold());
+        }
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeout().toMillis());
+        LowStockSubscription subscription = new LowStockSubscription(threshold, emitter,
+                properties.getSubscriberQueueSize(), properties.getHeartbeatInterval(), subscriptions::remove);
+        // Inscrit avant la lecture de l'historique : un événement publié entre-temps est reçu en direct
+        subscriptions.add(subscription);
+
+        List<LowStockEventDto> replay = List.of();
+        boolean gap = false;
+        long resumeFromId = 0;
+        if (lastEventId != null) {
+            resumeFromId = lastEventId;
+            try {
+                replay = history(lastEventId);
+                gap = isGap(replay, lastEventId);
+            } catch (RuntimeException e) {
+                log.warn("Historique des alertes de stock faible illisible: {}", e.getMessage());
+                gap = true;
+            }
+        }
+        subscription.start(replay, gap, resumeFromId);
+        log.debug("Nouvel abonné au flux de stock faible (seuil {}, reprise après {})", threshold, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Événements de l'historique postérieurs à lastEventId, du plus ancien au plus récent
+     */
+    private List<LowStockEventDto> history(long lastEventId) {
+        List<String> payloads = redisTemplate.opsForList().range(properties.getHistoryKey(), 0, -1);
+        List<LowStockEventDto> events = new ArrayList<>();
+        if (payloads == null) {
+            return events;
+        }
+        for (String payload : payloads) {
+            LowStockEventDto event = read(payload.getBytes());
+            if (event != null && event.getId() > lastEventId) {
+                events.add(event);
+            }
+        }
+        events.sort(Comparator.comparing(LowStockEventDto::getId));
+        return events;
+    }
+
+    /**
+     * Des événements ont été perdus si le premier rejoué n'est pas le suivant attendu, ou si le compteur
+     * est en deçà du dernier numéro reçu (Redis vidé)
+     */
+    private boolean isGap(List<LowStockEventDto> replay, long lastEventId) {
+        String current = redisTemplate.opsForValue().get(properties.getSequenceKey());
+        long sequence = current != null ? Long.parseLong(current) : 0;
+        if (sequence < lastEventId) {
+            return true;
+        }
+        if (sequence == lastEventId) {
+            return false;
+        }
+        return replay.isEmpty() || replay.get(0).getId() > lastEventId + 1;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String getChannel() {
+        return properties.getChannel();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        LowStockEventDto event = read(message.getBody());
+        if (event != null) {
+            subscriptions.forEach(subscription -> subscription.offer(event));
+        }
+    }
+
+    private LowStockEventDto read(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, LowStockEventDto.class);
+        } catch (IOException e) {
+            log.warn("Alerte de stock faible illisible ignorée: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.manager.product.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.config.LowStockAlertProperties;
+import com.manager.product.dto.LowStockEventDto;
+import com.manager.product.dto.ProductResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Émet les variations de stock détectées sur le chemin d'écriture vers le flux de stock faible.
+ * L'écrivain ne fait qu'empiler l'événement (après le commit s'il est dans une transaction) : l'envoi à Redis
+ * se fait sur un thread dédié, dans l'ordre des écritures de l'instance. Seules les variations qui touchent
+ * la zone des seuils acceptés (quantité avant ou après inférieure ou égale au seuil maximal) sont émises.
+ */
+@Slf4j
+@Component
+public class LowStockAlertPublisher {
+
+    private static final RedisScript<Long> PUBLISH_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/low-stock-publish.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final LowStockAlertProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public LowStockAlertPublisher(StringRedisTemplate redisTemplate,
+                                  ObjectMapper objectMapper,
+                                  LowStockAlertProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getPublishQueueSize()), runnable -> {
+                    Thread thread = new Thread(runnable, "low-stock-publisher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.published = eventCounter(meterRegistry, "published");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.failed = eventCounter(meterRegistry, "failed");
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("low.stock.events")
+                .description("Variations de stock émises vers le flux de stock faible")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Signale la nouvelle quantité d'un produit (product) et la quantité qu'il avait avant l'écriture
+     */
+    public void stockChanged(ProductResponseDto product, Integer previousQuantity) {
+        Integer quantity = product.getQuantityInStock();
+        if (!properties.isEnabled() || previousQuantity == null || quantity == null
+                || previousQuantity.equals(quantity)
+                || Math.min(previousQuantity, quantity) > properties.getMaxThreshold()) {
+            return;
+        }
+        LowStockEventDto event = LowStockEventDto.of(product, previousQuantity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(LowStockEventDto event) {
+        try {
+            executor.execute(() -> publish(event));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.warn("File des alertes de stock pleine, variation du produit {} abandonnée", event.getProductId());
+        }
+    }
+
+    private void publish(LowStockEventDto event) {
+        try {
+            redisTemplate.execute(PUBLISH_SCRIPT,
+                    List.of(properties.getSequenceKey(), properties.getHistoryKey()),
+                    objectMapper.writeValueAsString(event),
+                    String.valueOf(properties.getHistorySize()),
+                    properties.getChannel());
+            published.increment();
+        } catch (JsonProcessingException | RuntimeException e) {
+            failed.increment();
+            log.warn("Échec de l'émission de la variation de stock du produit {}: {}",
+                    event.getProductId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
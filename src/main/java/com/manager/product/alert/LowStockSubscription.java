@@ -0,0 +1,138 @@
+package com.manager.product.alert;
+
+import com.manager.product.dto.LowStockEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Abonné au flux de stock faible. Les événements reçus sont mis en file puis envoyés par un thread virtuel
+ * propre à l'abonné : un client lent ne bloque ni la diffusion ni les autres abonnés.
+ * Les événements de reprise (historique) passent avant ceux reçus en direct, les doublons étant écartés
+ * par leur numéro.
+ */
+@Slf4j
+class LowStockSubscription {
+
+    static final String LOW_STOCK = "low-stock";
+    static final String RESTOCKED = "restocked";
+    static final String RESET = "reset";
+
+    private final int threshold;
+    private final SseEmitter emitter;
+    private final BlockingQueue<LowStockEventDto> queue;
+    private final Duration heartbeatInterval;
+    private final Consumer<LowStockSubscription> onClose;
+
+    private volatile boolean closed;
+    private long lastSentId;
+    private volatile Thread sender;
+
+    LowStockSubscription(int threshold, SseEmitter emitter, int queueSize, Duration heartbeatInterval,
+                         Consumer<LowStockSubscription> onClose) {
+        this.threshold = threshold;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.heartbeatInterval = heartbeatInterval;
+        this.onClose = onClose;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(error -> close());
+    }
+
+    /**
+     * Type d'événement pour le seuil de l'abonné : passage sous le seuil (quantité inférieure ou égale),
+     * retour au-dessus, ou null si le seuil n'est pas franchi. Seuls les produits actifs sont signalés.
+     */
+    String crossing(LowStockEventDto event) {
+        if (!Boolean.TRUE.equals(event.getActive())) {
+            return null;
+        }
+        boolean wasLow = event.getPreviousQuantity() <= threshold;
+        boolean isLow = event.getQuantity() <= threshold;
+        if (!wasLow && isLow) {
+            return LOW_STOCK;
+        }
+        return wasLow && !isLow ? RESTOCKED : null;
+    }
+
+    /**
+     * Met en file un événement reçu en direct ; un abonné dont la file déborde est déconnecté
+     */
+    void offer(LowStockEventDto event) {
+        if (closed || crossing(event) == null) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            log.info("Abonné au flux de stock faible trop lent, déconnexion (reprise possible via Last-Event-ID)");
+            emitter.complete();
+            close();
+        }
+    }
+
+    /**
+     * Démarre l'envoi : d'abord la reprise (gap=true si l'historique ne couvre plus l'interruption), puis le direct
+     */
+    void start(List<LowStockEventDto> replay, boolean gap, long resumeFromId) {
+        lastSentId = resumeFromId;
+        sender = Thread.ofVirtual().name("low-stock-subscriber").start(() -> run(replay, gap));
+    }
+
+    private void run(List<LowStockEventDto> replay, boolean gap) {
+        try {
+            if (gap) {
+                // Des événements manquent : le client doit relire GET /api/v1/products/low-stock
+                emitter.send(SseEmitter.event().name(RESET).data("Historique insuffisant, état à relire"));
+            }
+            for (LowStockEventDto event : replay) {
+                send(event);
+            }
+            while (!closed) {
+                LowStockEventDto event = queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    send(event);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté ou emitter déjà terminé
+            log.debug("Fin d'un abonnement au flux de stock faible: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+        }
+    }
+
+    private void send(LowStockEventDto event) throws IOException {
+        String type = crossing(event);
+        if (type == null || event.getId() <= lastSentId) {
+            return;
+        }
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(type)
+                .data(event));
+        lastSentId = event.getId();
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onClose.accept(this);
+        Thread current = sender;
+        if (current != null && current != Thread.currentThread()) {
+            current.interrupt();
+        }
+    }
+}
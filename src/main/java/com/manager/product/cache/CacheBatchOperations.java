@@ -0,0 +1,77 @@
+package com.manager.product.cache;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectures et écritures groupées des entrées de cache Redis, en un seul aller-retour (MGET, pipeline).
+ * Travaille sur les octets déjà sérialisés : la (dé)sérialisation reste celle du cache concerné.
+ */
+public class CacheBatchOperations {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public CacheBatchOperations(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Valeur brute d'une clé (null si absente) et, si demandée, sa durée de vie restante (null si inconnue)
+     */
+    public record Entry(byte[] value, Duration remainingTtl) {
+    }
+
+    /**
+     * Lit les clés dans l'ordre donné ; avec withTtl, MGET et les PTTL partent dans le même pipeline
+     */
+    public List<Entry> getAll(List<String> keys, boolean withTtl) {
+        byte[][] rawKeys = keys.stream().map(key -> key.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        List<Entry> entries = new ArrayList<>(keys.size());
+        if (!withTtl) {
+            List<byte[]> values = redisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+            for (int i = 0; i < keys.size(); i++) {
+                entries.add(new Entry(values != null ? values.get(i) : null, null));
+            }
+            return entries;
+        }
+
+        // Sans sérialiseur de résultat, le pipeline rend les octets tels quels
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().mGet(rawKeys);
+            for (byte[] rawKey : rawKeys) {
+                connection.keyCommands().pTtl(rawKey);
+            }
+            return null;
+        }, null);
+        @SuppressWarnings("unchecked")
+        List<byte[]> values = (List<byte[]>) results.get(0);
+        for (int i = 0; i < keys.size(); i++) {
+            Long ttl = (Long) results.get(i + 1);
+            entries.add(new Entry(values.get(i), ttl != null && ttl >= 0 ? Duration.ofMillis(ttl) : null));
+        }
+        return entries;
+    }
+
+    /**
+     * Écrit toutes les entrées dans un même pipeline (durée de vie nulle : sans expiration)
+     */
+    public void putAll(Map<String, byte[]> entries, Duration ttl) {
+        Expiration expiration = ttl != null && !ttl.isZero() && !ttl.isNegative()
+                ? Expiration.from(ttl)
+                : Expiration.persistent();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8),
+                    value, expiration, RedisStringCommands.SetOption.upsert()));
+            return null;
+        }, null);
+    }
+}
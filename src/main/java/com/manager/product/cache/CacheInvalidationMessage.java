@@ -0,0 +1,19 @@
+package com.manager.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Message d'invalidation diffusé entre instances via Redis pub/sub.
+ * Une clé nulle signifie que tout le cache doit être vidé.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    private String origin;
+    private String cacheName;
+    private String key;
+}
@@ -0,0 +1,83 @@
+package com.manager.product.cache;
+
+import com.manager.product.config.ProductCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Baux Redis de chargement (SET NX PX) : sur un défaut de cache, une seule instance recharge une clé donnée,
+ * les autres attendent que la valeur apparaisse dans Redis. Le bail expire de lui-même si son détenteur s'arrête.
+ * Redis indisponible n'empêche jamais un chargement : le bail est alors considéré comme obtenu.
+ */
+@Slf4j
+public class CacheLoadLeases {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lease-release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductCacheProperties.Lease properties;
+
+    public CacheLoadLeases(StringRedisTemplate redisTemplate, ProductCacheProperties.Lease properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    public ProductCacheProperties.Lease getProperties() {
+        return properties;
+    }
+
+    /**
+     * Tente de prendre le bail de chargement de la clé ; null si une autre instance le détient
+     */
+    public Lease tryAcquire(String cacheName, String key) {
+        if (!properties.isEnabled()) {
+            return Lease.NONE;
+        }
+        String leaseKey = properties.getKeyPrefix() + cacheName + "::" + key;
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, properties.getTtl());
+            return Boolean.FALSE.equals(acquired) ? null : new Lease(leaseKey, token);
+        } catch (RuntimeException e) {
+            log.debug("Bail de chargement {} indisponible, chargement sans bail: {}", leaseKey, e.getMessage());
+            return Lease.NONE;
+        }
+    }
+
+    /**
+     * Indique si le bail de la clé est encore détenu (par une autre instance)
+     */
+    public boolean isHeld(String cacheName, String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(properties.getKeyPrefix() + cacheName + "::" + key));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    public void release(Lease lease) {
+        if (lease == Lease.NONE) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lease.key()), lease.token());
+        } catch (RuntimeException e) {
+            // Le bail expirera de lui-même à la fin de son TTL
+            log.debug("Échec de la libération du bail {}: {}", lease.key(), e.getMessage());
+        }
+    }
+
+    public record Lease(String key, String token) {
+
+        /**
+         * Bail fictif : baux désactivés ou Redis indisponible
+         */
+        static final Lease NONE = new Lease(null, null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.manager.product.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécute les rechargements anticipés (refresh-ahead) des caches à deux niveaux hors du chemin des requêtes,
+ * et lit la durée de vie restante des entrées Redis. File bornée : un rechargement refusé sera retenté
+ * à une lecture ultérieure, l'entrée restant servie jusqu'à son expiration.
+ */
+@Slf4j
+public class CacheRefresher implements AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 1_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public CacheRefresher(StringRedisTemplate redisTemplate, int threads) {
+        this.redisTemplate = redisTemplate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return false si la file des rechargements est pleine
+     */
+    public boolean submit(Runnable refresh) {
+        try {
+            executor.execute(refresh);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Durée de vie restante d'une clé Redis ; null si la clé est absente, sans expiration ou Redis indisponible
+     */
+    public Duration remainingTtl(String redisKey) {
+        try {
+            Long millis = redisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+            return millis == null || millis < 0 ? null : Duration.ofMillis(millis);
+        } catch (RuntimeException e) {
+            log.debug("Durée de vie restante de {} illisible: {}", redisKey, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
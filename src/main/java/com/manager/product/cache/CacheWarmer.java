@@ -0,0 +1,177 @@
+package com.manager.product.cache;
+
+import com.manager.product.config.ProductCacheProperties;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.repository.ProductRepository;
+import com.manager.product.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Préchauffe les caches "product" et "products-page" au démarrage.
+ * Les ApplicationRunner s'exécutant avant la publication de l'état ACCEPTING_TRAFFIC, la sonde
+ * readiness ne passe à UP qu'une fois le préchauffage terminé (ou son délai dépassé).
+ */
+@Slf4j
+@Component
+public class CacheWarmer implements ApplicationRunner {
+
+    public enum Status { PENDING, RUNNING, COMPLETED, PARTIAL, SKIPPED }
+
+    /**
+     * État du préchauffage exposé par l'indicateur de santé
+     */
+    public record Progress(Status status, int loadedProducts, int totalProducts,
+                           int loadedPages, int totalPages, Duration duration) {
+    }
+
+    private final ProductCacheProperties.Warmup properties;
+    private final ProductAccessRecorder accessRecorder;
+    private final ProductPageCache productPageCache;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger loadedProducts = new AtomicInteger();
+    private final AtomicInteger loadedPages = new AtomicInteger();
+    private volatile int totalProducts;
+    private volatile int totalPages;
+    private volatile Status status = Status.PENDING;
+    private volatile Duration duration = Duration.ZERO;
+
+    public CacheWarmer(ProductCacheProperties cacheProperties,
+                       ProductAccessRecorder accessRecorder,
+                       ProductPageCache productPageCache,
+                       ProductRepository productRepository,
+                       ProductService productService,
+                       CacheManager cacheManager,
+                       MeterRegistry meterRegistry) {
+        this.properties = cacheProperties.getWarmup();
+        this.accessRecorder = accessRecorder;
+        this.productPageCache = productPageCache;
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled() || cacheManager instanceof NoOpCacheManager) {
+            status = Status.SKIPPED;
+            return;
+        }
+        status = Status.RUNNING;
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism(),
+                new CustomizableThreadFactory("cache-warmup-"));
+        try {
+            // Les pages doivent être rangées sous la génération courante, pas sous la génération initiale 0
+            productPageCache.syncGeneration();
+
+            List<Callable<Void>> tasks = new ArrayList<>();
+            List<Long> hotIds = hotProductIds();
+            totalProducts = hotIds.size();
+            for (int from = 0; from < hotIds.size(); from += properties.getBatchSize()) {
+                List<Long> batch = hotIds.subList(from, Math.min(from + properties.getBatchSize(), hotIds.size()));
+                tasks.add(() -> warmProducts(batch));
+            }
+            totalPages = properties.getPages();
+            for (int page = 0; page < properties.getPages(); page++) {
+                int pageNumber = page;
+                tasks.add(() -> warmPage(pageNumber));
+            }
+
+            // Les tâches non terminées à l'expiration du délai sont annulées
+            int failures = 0;
+            for (Future<Void> future : executor.invokeAll(tasks, properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                failures += succeeded(future) ? 0 : 1;
+            }
+            status = failures == 0 ? Status.COMPLETED : Status.PARTIAL;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = Status.PARTIAL;
+        } catch (RuntimeException e) {
+            log.warn("Préchauffage du cache interrompu: {}", e.getMessage());
+            status = Status.PARTIAL;
+        } finally {
+            executor.shutdownNow();
+            duration = Duration.ofNanos(System.nanoTime() - start);
+            meterRegistry.timer("cache.warmup", "status", status.name().toLowerCase()).record(duration);
+            log.info("Préchauffage du cache {} en {} ms: {}/{} produits, {}/{} pages",
+                    status, duration.toMillis(), loadedProducts.get(), totalProducts, loadedPages.get(), totalPages);
+        }
+    }
+
+    private List<Long> hotProductIds() {
+        try {
+            return accessRecorder.hottest(properties.getHotProducts());
+        } catch (RuntimeException e) {
+            log.warn("Classement des produits consultés indisponible, seules les pages seront préchauffées: {}",
+                    e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Charge un lot de produits en une requête. putIfAbsent ne remplace pas une valeur plus récente
+     * déjà écrite par une autre instance et ne diffuse pas d'invalidation.
+     */
+    private Void warmProducts(List<Long> ids) {
+        Cache cache = cacheManager.getCache("product");
+        if (cache == null) {
+            return null;
+        }
+        for (ProductResponseDto product : productRepository.findResponsesByIdIn(ids)) {
+            cache.putIfAbsent(product.getId(), product);
+            loadedProducts.incrementAndGet();
+        }
+        return null;
+    }
+
+    private Void warmPage(int pageNumber) {
+        productService.getAllProducts(PageRequest.of(pageNumber, properties.getPageSize()));
+        loadedPages.incrementAndGet();
+        return null;
+    }
+
+    private static boolean succeeded(Future<Void> future) {
+        try {
+            future.get();
+            return true;
+        } catch (CancellationException e) {
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("Échec d'un lot du préchauffage: {}", e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public Progress getProgress() {
+        return new Progress(status, loadedProducts.get(), totalProducts, loadedPages.get(), totalPages, duration);
+    }
+}
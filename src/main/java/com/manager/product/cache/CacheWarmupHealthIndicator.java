@@ -0,0 +1,29 @@
+package com.manager.product.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicateur "cacheWarmup", inclus dans le groupe readiness : OUT_OF_SERVICE tant que le préchauffage est en cours
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        CacheWarmer.Progress progress = cacheWarmer.getProgress();
+        boolean warming = progress.status() == CacheWarmer.Status.PENDING
+                || progress.status() == CacheWarmer.Status.RUNNING;
+        return (warming ? Health.outOfService() : Health.up())
+                .withDetail("status", progress.status())
+                .withDetail("products", progress.loadedProducts() + "/" + progress.totalProducts())
+                .withDetail("pages", progress.loadedPages() + "/" + progress.totalPages())
+                .withDetail("durationMs", progress.duration().toMillis())
+                .build();
+    }
+}
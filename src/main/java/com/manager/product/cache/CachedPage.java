@@ -0,0 +1,27 @@
+package com.manager.product.cache;
+
+import com.manager.product.dto.ProductResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contenu d'une page de produits mise en cache.
+ * PageImpl n'étant pas désérialisable depuis Redis, seuls le contenu et le total sont conservés.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedPage {
+
+    private List<ProductResponseDto> content;
+    private long totalElements;
+
+    static CachedPage of(List<ProductResponseDto> content, long totalElements) {
+        // Liste mutable : les listes immuables du JDK ne se relisent pas avec le typage par défaut Jackson
+        return new CachedPage(new ArrayList<>(content), totalElements);
+    }
+}
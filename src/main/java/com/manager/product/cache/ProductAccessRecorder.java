@@ -0,0 +1,102 @@
+package com.manager.product.cache;
+
+import com.manager.product.config.ProductCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compte les consultations de produits pour le préchauffage du cache.
+ * Les compteurs sont agrégés en mémoire puis reportés périodiquement dans un sorted set Redis
+ * partagé par toutes les instances, en un seul pipeline.
+ */
+@Slf4j
+@Component
+public class ProductAccessRecorder {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductCacheProperties.Warmup properties;
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ProductAccessRecorder(StringRedisTemplate redisTemplate, ProductCacheProperties cacheProperties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = cacheProperties.getWarmup();
+    }
+
+    /**
+     * Enregistre une consultation du produit
+     */
+    public void record(Long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LongAdder counter = pending.get(id);
+        if (counter == null) {
+            // Borne la mémoire si Redis reste injoignable : les nouveaux produits sont ignorés
+            if (pending.size() >= properties.getMaxTracked()) {
+                return;
+            }
+            counter = pending.computeIfAbsent(id, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Reporte les consultations comptées depuis le dernier envoi dans Redis et tronque le classement
+     */
+    @Scheduled(fixedDelayString = "${app.cache.warmup.access-flush-interval-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (Long id : List.copyOf(pending.keySet())) {
+            // Une consultation comptée pendant le retrait peut être perdue : sans effet sur le classement
+            LongAdder counter = pending.remove(id);
+            if (counter != null) {
+                counts.put(id, counter.sum());
+            }
+        }
+
+        byte[] key = properties.getAccessKey().getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                incrementAll(connection, key, counts);
+                connection.zSetCommands().zRemRange(key, 0, -(properties.getMaxTracked() + 1L));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Échec de l'envoi de {} compteurs de consultation vers Redis: {}", counts.size(), e.getMessage());
+        }
+    }
+
+    private static void incrementAll(RedisConnection connection, byte[] key, Map<Long, Long> counts) {
+        counts.forEach((id, count) -> connection.zSetCommands()
+                .zIncrBy(key, count, String.valueOf(id).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Retourne les IDs des produits les plus consultés, du plus au moins consulté
+     */
+    public List<Long> hottest(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(properties.getAccessKey(), 0, count - 1L);
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().map(Long::valueOf).toList();
+    }
+}
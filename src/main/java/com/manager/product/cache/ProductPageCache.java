@@ -0,0 +1,173 @@
+package com.manager.product.cache;
+
+import com.manager.product.config.ProductCacheProperties;
+import com.manager.product.dto.ProductResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache des pages du catalogue, indexé par une génération partagée dans Redis.
+ * Une écriture incrémente la génération au lieu de supprimer les pages : les anciennes clés ne sont
+ * plus jamais lues et expirent d'elles-mêmes (TTL du cache), sans SCAN/DEL sur Redis.
+ */
+@Slf4j
+@Component
+public class ProductPageCache implements MessageListener {
+
+    public static final String CACHE_NAME = "products-page";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ProductCacheProperties properties;
+
+    /**
+     * Dernière génération connue de cette instance ; ne fait qu'augmenter
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductPageCache(CacheManager cacheManager,
+                            StringRedisTemplate redisTemplate,
+                            ProductCacheProperties properties) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Sans cache (spring.cache.type=none) il n'y a ni page à invalider ni génération à suivre
+     */
+    public boolean isEnabled() {
+        return !(cacheManager instanceof NoOpCacheManager);
+    }
+
+    /**
+     * Retourne la page demandée depuis le cache de la génération courante, ou la charge puis la met en cache
+     */
+    public Page<ProductResponseDto> get(Pageable pageable, Supplier<Page<ProductResponseDto>> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return loader.get();
+        }
+        CachedPage cached = cache.get(pageKey(pageable), () -> {
+            Page<ProductResponseDto> page = loader.get();
+            return CachedPage.of(page.getContent(), page.getTotalElements());
+        });
+        return new PageImpl<>(cached.getContent(), pageable, cached.getTotalElements());
+    }
+
+    /**
+     * Rend obsolètes toutes les pages en cache. Dans une transaction, la génération n'est incrémentée
+     * qu'après le commit : une page relue entre-temps reste rangée sous l'ancienne génération.
+     */
+    public void invalidate() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    nextGeneration();
+                }
+            });
+        } else {
+            nextGeneration();
+        }
+    }
+
+    private void nextGeneration() {
+        try {
+            Long next = redisTemplate.opsForValue().increment(properties.getGenerationKey());
+            if (next != null) {
+                advanceTo(next);
+                redisTemplate.convertAndSend(properties.getGenerationChannel(), String.valueOf(next));
+            }
+        } catch (RuntimeException e) {
+            // Les autres instances serviront au pire leurs pages jusqu'à l'expiration du TTL
+            long local = generation.incrementAndGet();
+            log.warn("Échec de l'incrément de la génération du catalogue dans Redis, génération locale {}: {}",
+                    local, e.getMessage());
+        }
+    }
+
+    /**
+     * Reçoit les générations publiées par les autres instances
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            advanceTo(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("Génération du catalogue illisible ignorée: {}", body);
+        }
+    }
+
+    /**
+     * Relit périodiquement la génération dans Redis, au cas où un message pub/sub aurait été perdu
+     */
+    @Scheduled(fixedDelayString = "${app.cache.generation-sync-interval-ms:5000}")
+    public void syncGeneration() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(properties.getGenerationKey());
+            if (value != null) {
+                advanceTo(Long.parseLong(value));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Lecture de la génération du catalogue impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Génération courante du catalogue, connue sans accès à la base : elle change à chaque écriture validée
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    private void advanceTo(long value) {
+        generation.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Clé d'une page : génération, numéro, taille et tri
+     */
+    String pageKey(Pageable pageable) {
+        return "g" + generation.get()
+                + ":p" + pageable.getPageNumber()
+                + ":s" + pageable.getPageSize()
+                + ":" + sortKey(pageable.getSort());
+    }
+
+    private static String sortKey(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "unsorted";
+        }
+        return sort.stream()
+                .map(order -> order.getProperty() + "." + order.getDirection()
+                        + (order.isIgnoreCase() ? ".ic" : "")
+                        + (order.getNullHandling() != Sort.NullHandling.NATIVE ? "." + order.getNullHandling() : ""))
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,574 @@
+package com.manager.product.cache;
+
+import com.manager.product.config.ProductCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache à deux niveaux : un cache local (L1) borné en taille et en durée, placé devant le cache Redis (L2).
+ * Les écritures et évictions sont propagées aux caches locaux des autres instances via Redis pub/sub.
+ * Les chargements sur défaut de cache sont dédoublonnés : un seul chargement par clé et par instance
+ * (les appels concurrents partagent son résultat), et une seule instance à la fois grâce à un bail Redis.
+ * Avec le rechargement anticipé, une entrée lue dans la fin de sa durée de vie Redis est rechargée
+ * en arrière-plan : une clé consultée régulièrement n'expire jamais sur le chemin d'une requête.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    /**
+     * Représentation Redis d'une valeur nulle, identique à celle de RedisCache
+     */
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final String name;
+    private final Cache remoteCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheLoadLeases loadLeases;
+    private final ProductCacheProperties.CacheSpec spec;
+    private final CacheRefresher refresher;
+    private final CacheBatchOperations batchOperations;
+    private final String redisKeyPrefix;
+    private final ConcurrentMap<String, CompletableFuture<Object>> loadsInFlight = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Counter remoteInvalidations;
+    private final Counter loads;
+    private final Counter coalescedLoads;
+    private final Counter remoteLoads;
+    private final Counter leaseTimeouts;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+
+    public TwoLevelCache(String name,
+                         Cache remoteCache,
+                         com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheLoadLeases loadLeases,
+                         ProductCacheProperties.CacheSpec spec,
+                         CacheRefresher refresher,
+                         CacheBatchOperations batchOperations,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.remoteCache = remoteCache;
+        this.localCache = localCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.loadLeases = loadLeases;
+        this.spec = spec;
+        this.refresher = refresher;
+        this.batchOperations = batchOperations;
+        this.redisKeyPrefix = remoteCache instanceof RedisCache redisCache
+                ? redisCache.getCacheConfiguration().getKeyPrefixFor(name)
+                : name + "::";
+
+        this.localHits = tierCounter(meterRegistry, "local", "hit");
+        this.localMisses = tierCounter(meterRegistry, "local", "miss");
+        this.remoteHits = tierCounter(meterRegistry, "remote", "hit");
+        this.remoteMisses = tierCounter(meterRegistry, "remote", "miss");
+        this.puts = Counter.builder("cache.tier.puts")
+                .description("Écritures explicites dans le cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.tier.invalidations")
+                .description("Invalidations du cache (éviction ou vidage)")
+                .tag("cache", name)
+                .tag("origin", "local")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("cache.tier.invalidations")
+                .description("Invalidations du cache (éviction ou vidage)")
+                .tag("cache", name)
+                .tag("origin", "remote")
+                .register(meterRegistry);
+
+        this.loads = loadCounter(meterRegistry, "loaded");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.remoteLoads = loadCounter(meterRegistry, "loaded-elsewhere");
+        this.leaseTimeouts = loadCounter(meterRegistry, "lease-timeout");
+        this.refreshes = loadCounter(meterRegistry, "refreshed");
+        this.refreshFailures = loadCounter(meterRegistry, "refresh-failed");
+        Gauge.builder("cache.loads.in-flight", loadsInFlight, ConcurrentMap::size)
+                .description("Chargements sur défaut de cache en cours")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        FunctionCounter.builder("cache.tier.evictions", localCache, c -> c.stats().evictionCount())
+                .description("Nombre d'entrées évincées du cache local (taille ou durée de vie)")
+                .tag("cache", name)
+                .tag("tier", "local")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.size", localCache, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Nombre estimé d'entrées dans le cache local")
+                .tag("cache", name)
+                .tag("tier", "local")
+                .register(meterRegistry);
+    }
+
+    private Counter tierCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Lectures du cache par niveau")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issue des défauts de cache : chargé ici, partagé avec un chargement en cours sur cette instance
+     * (coalesced), chargé par une autre instance détentrice du bail (loaded-elsewhere), ou chargé ici
+     * après une attente trop longue du bail (lease-timeout) ; rechargements anticipés (refreshed, refresh-failed)
+     */
+    private Counter loadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cache.loads")
+                .description("Chargements sur défaut de cache")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+        localMisses.increment();
+
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        LocalEntry entry = remoteEntry(localKey, remote.get());
+        localCache.put(localKey, entry);
+        return entry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "La valeur en cache n'est pas du type attendu [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            if (wrapper instanceof LocalEntry entry && entry.isRefreshDue()) {
+                refreshAhead(key, localKey, entry, valueLoader);
+            }
+            return (T) wrapper.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loadsInFlight.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            return (T) await(inFlight);
+        }
+        try {
+            Object value = load(key, localKey, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInFlight.remove(localKey, load);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            // Même exception que le chargement partagé (ValueRetrievalException, déballée par l'aspect de cache)
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Chargement effectif, seul pour cette clé sur cette instance. Sans le bail, on attend que son détenteur
+     * range la valeur dans Redis ; s'il tarde ou disparaît, on charge quand même. Avec le bail, Redis est relu
+     * avant d'appeler la base.
+     */
+    private Object load(Object key, String localKey, Callable<?> valueLoader) {
+        // Un chargement concurrent a pu se terminer entre le défaut de cache et l'inscription de celui-ci
+        ValueWrapper local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return local.get();
+        }
+
+        CacheLoadLeases.Lease lease = loadLeases.tryAcquire(name, localKey);
+        if (lease == null) {
+            ValueWrapper loadedElsewhere = awaitRemoteLoad(key, localKey);
+            if (loadedElsewhere != null) {
+                return loadedElsewhere(localKey, loadedElsewhere);
+            }
+            leaseTimeouts.increment();
+        }
+        try {
+            if (lease != null) {
+                // Le détenteur précédent du bail a pu ranger la valeur dans Redis après notre défaut de cache
+                ValueWrapper loadedElsewhere = remoteCache.get(key);
+                if (loadedElsewhere != null) {
+                    return loadedElsewhere(localKey, loadedElsewhere);
+                }
+            }
+            Object value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            loads.increment();
+            store(key, localKey, value);
+            return value;
+        } finally {
+            if (lease != null) {
+                loadLeases.release(lease);
+            }
+        }
+    }
+
+    private Object loadedElsewhere(String localKey, ValueWrapper remote) {
+        remoteLoads.increment();
+        localCache.put(localKey, remoteEntry(localKey, remote.get()));
+        return remote.get();
+    }
+
+    private ValueWrapper awaitRemoteLoad(Object key, String localKey) {
+        long deadline = System.nanoTime() + loadLeases.getProperties().getWaitTimeout().toNanos();
+        long pollMillis = loadLeases.getProperties().getPollInterval().toMillis();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(pollMillis);
+                ValueWrapper remote = remoteCache.get(key);
+                if (remote != null) {
+                    return remote;
+                }
+                if (!loadLeases.isHeld(name, localKey)) {
+                    // Bail libéré sans valeur (échec du chargement) ou expiré
+                    return remoteCache.get(key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Range une valeur chargée. Un chargement ne modifie pas la donnée : inutile d'invalider les autres instances
+     */
+    private void store(Object key, String localKey, Object value) {
+        if (value == null && !spec.isCacheNullValues()) {
+            return;
+        }
+        remoteCache.put(key, value);
+        localCache.put(localKey, freshEntry(value));
+    }
+
+    /**
+     * Recharge l'entrée en arrière-plan, une seule fois à la fois par clé (le rechargement compte comme
+     * chargement en cours : un défaut de cache concurrent en partage le résultat)
+     */
+    private void refreshAhead(Object key, String localKey, LocalEntry entry, Callable<?> valueLoader) {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        if (loadsInFlight.putIfAbsent(localKey, pending) != null) {
+            return;
+        }
+        boolean submitted = refresher.submit(() -> {
+            try {
+                pending.complete(refresh(key, localKey, entry, valueLoader));
+            } catch (Exception e) {
+                refreshFailures.increment();
+                // L'entrée actuelle reste servie jusqu'à son expiration
+                entry.refreshAt = LocalEntry.NEVER;
+                log.debug("Échec du rechargement anticipé de {}::{}: {}", name, localKey, e.getMessage());
+                pending.completeExceptionally(new ValueRetrievalException(key, valueLoader, e));
+            } finally {
+                loadsInFlight.remove(localKey, pending);
+            }
+        });
+        if (!submitted) {
+            loadsInFlight.remove(localKey, pending);
+            pending.complete(entry.get());
+        }
+    }
+
+    private Object refresh(Object key, String localKey, LocalEntry entry, Callable<?> valueLoader) throws Exception {
+        Duration remaining = refresher.remainingTtl(redisKeyPrefix + localKey);
+        if (remaining != null && remaining.compareTo(refreshWindow()) > 0) {
+            // Déjà rechargée par une autre instance
+            ValueWrapper remote = remoteCache.get(key);
+            if (remote != null) {
+                localCache.asMap().replace(localKey, entry, new LocalEntry(remote.get(), refreshAt(remaining)));
+                return remote.get();
+            }
+        }
+        CacheLoadLeases.Lease lease = loadLeases.tryAcquire(name, localKey);
+        if (lease == null) {
+            // Rechargement en cours sur une autre instance : plus de tentative pour cette entrée locale
+            entry.refreshAt = LocalEntry.NEVER;
+            return entry.get();
+        }
+        try {
+            Object value = valueLoader.call();
+            // Une écriture ou une invalidation survenue pendant le chargement a priorité sur la valeur rechargée
+            if (localCache.getIfPresent(localKey) == entry) {
+                refreshes.increment();
+                store(key, localKey, value);
+            }
+            return value;
+        } finally {
+            loadLeases.release(lease);
+        }
+    }
+
+    /**
+     * Lecture groupée : cache local, puis un seul aller-retour Redis (MGET, avec les durées de vie restantes
+     * si le rechargement anticipé est actif) pour les clés absentes localement.
+     * Ne recharge rien : les clés absentes du résultat sont à charger par l'appelant.
+     *
+     * @return les entrées trouvées, indexées par les clés demandées
+     */
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> found = new HashMap<>();
+        List<Object> localMissKeys = new ArrayList<>();
+        for (Object key : keys) {
+            ValueWrapper local = localCache.getIfPresent(localKey(key));
+            if (local != null) {
+                localHits.increment();
+                found.put(key, local);
+            } else {
+                localMisses.increment();
+                localMissKeys.add(key);
+            }
+        }
+        if (localMissKeys.isEmpty()) {
+            return found;
+        }
+        if (!(remoteCache instanceof RedisCache redisCache)) {
+            localMissKeys.forEach(key -> {
+                ValueWrapper remote = remoteCache.get(key);
+                if (remote != null) {
+                    found.put(key, remote);
+                }
+            });
+            return found;
+        }
+
+        List<CacheBatchOperations.Entry> entries = batchOperations.getAll(
+                localMissKeys.stream().map(key -> redisKeyPrefix + localKey(key)).toList(), spec.refreshesAhead());
+        for (int i = 0; i < localMissKeys.size(); i++) {
+            CacheBatchOperations.Entry remote = entries.get(i);
+            if (remote.value() == null) {
+                remoteMisses.increment();
+                continue;
+            }
+            remoteHits.increment();
+            RedisSerializationContext.SerializationPair<Object> serialization =
+                    redisCache.getCacheConfiguration().getValueSerializationPair();
+            Object value = Arrays.equals(remote.value(), BINARY_NULL_VALUE)
+                    ? null
+                    : serialization.read(ByteBuffer.wrap(remote.value()));
+            LocalEntry entry = new LocalEntry(value,
+                    spec.refreshesAhead() && remote.remainingTtl() != null
+                            ? refreshAt(remote.remainingTtl())
+                            : LocalEntry.NEVER);
+            localCache.put(localKey(localMissKeys.get(i)), entry);
+            found.put(localMissKeys.get(i), entry);
+        }
+        return found;
+    }
+
+    /**
+     * Range des valeurs chargées en une seule écriture Redis (pipeline). Comme pour un chargement unitaire,
+     * les autres instances ne sont pas invalidées.
+     */
+    public void putAll(Map<?, ?> values) {
+        Map<String, byte[]> serialized = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value == null && !spec.isCacheNullValues()) {
+                return;
+            }
+            String localKey = localKey(key);
+            localCache.put(localKey, freshEntry(value));
+            if (remoteCache instanceof RedisCache redisCache) {
+                RedisSerializationContext.SerializationPair<Object> serialization =
+                        redisCache.getCacheConfiguration().getValueSerializationPair();
+                serialized.put(redisKeyPrefix + localKey,
+                        value == null ? BINARY_NULL_VALUE : ByteUtils.getBytes(serialization.write(value)));
+            } else {
+                remoteCache.put(key, value);
+            }
+        });
+        if (!serialized.isEmpty()) {
+            batchOperations.putAll(serialized, spec.expires() ? spec.getTtl() : null);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        puts.increment();
+        remoteCache.put(key, value);
+        String localKey = localKey(key);
+        localCache.put(localKey, freshEntry(value));
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        // Le cache local reçoit la valeur effectivement conservée par Redis
+        String localKey = localKey(key);
+        localCache.put(localKey, existing != null ? remoteEntry(localKey, existing.get()) : freshEntry(value));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.increment();
+        remoteCache.evict(key);
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        evictions.increment();
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    /**
+     * Invalide une entrée du cache local uniquement (suite à un message d'une autre instance)
+     */
+    public void evictLocal(String localKey) {
+        remoteInvalidations.increment();
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * Vide le cache local uniquement (suite à un message d'une autre instance)
+     */
+    public void clearLocal() {
+        remoteInvalidations.increment();
+        localCache.invalidateAll();
+    }
+
+    private Duration refreshWindow() {
+        return Duration.ofMillis((long) (spec.getTtl().toMillis() * spec.getRefreshAhead()));
+    }
+
+    private long refreshAt(Duration remainingTtl) {
+        return System.nanoTime() + remainingTtl.minus(refreshWindow()).toNanos();
+    }
+
+    /**
+     * Entrée locale d'une valeur qui vient d'être écrite dans Redis : toute sa durée de vie reste à courir
+     */
+    private LocalEntry freshEntry(Object value) {
+        return new LocalEntry(value, spec.refreshesAhead() ? refreshAt(spec.getTtl()) : LocalEntry.NEVER);
+    }
+
+    /**
+     * Entrée locale d'une valeur lue dans Redis ; sa durée de vie restante n'est lue que si le rechargement
+     * anticipé est actif
+     */
+    private LocalEntry remoteEntry(String localKey, Object value) {
+        if (!spec.refreshesAhead()) {
+            return new LocalEntry(value, LocalEntry.NEVER);
+        }
+        Duration remaining = refresher.remainingTtl(redisKeyPrefix + localKey);
+        return new LocalEntry(value, remaining != null ? refreshAt(remaining) : LocalEntry.NEVER);
+    }
+
+    /**
+     * Valeur du cache local et instant (System.nanoTime) à partir duquel une lecture la recharge
+     */
+    static final class LocalEntry implements ValueWrapper {
+
+        static final long NEVER = Long.MAX_VALUE;
+
+        private final Object value;
+        private volatile long refreshAt;
+
+        LocalEntry(Object value, long refreshAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+        }
+
+        @Override
+        public Object get() {
+            return value;
+        }
+
+        boolean isRefreshDue() {
+            long at = refreshAt;
+            return at != NEVER && System.nanoTime() - at >= 0;
+        }
+    }
+
+    /**
+     * Les clés locales utilisent la même représentation textuelle que les clés Redis,
+     * ce qui permet de les invalider depuis un message pub/sub
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
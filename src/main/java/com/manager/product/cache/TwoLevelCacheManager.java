@@ -0,0 +1,103 @@
+package com.manager.product.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manager.product.config.ProductCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager qui place un cache local Caffeine devant chaque cache du CacheManager Redis
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, AutoCloseable {
+
+    private final CacheManager remoteCacheManager;
+    private final ProductCacheProperties properties;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheLoadLeases loadLeases;
+    private final CacheRefresher refresher;
+    private final CacheBatchOperations batchOperations;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                ProductCacheProperties properties,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                CacheLoadLeases loadLeases,
+                                CacheRefresher refresher,
+                                CacheBatchOperations batchOperations,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.invalidationPublisher = invalidationPublisher;
+        this.loadLeases = loadLeases;
+        this.refresher = refresher;
+        this.batchOperations = batchOperations;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            throw new IllegalStateException("Cache Redis introuvable: " + name);
+        }
+        ProductCacheProperties.CacheSpec spec = properties.specFor(name);
+        ProductCacheProperties.Local local = properties.getLocal();
+        long maxSize = spec.getLocalMaxSize() != null ? spec.getLocalMaxSize() : local.getMaxSize();
+        Duration ttl = spec.getLocalTtl() != null ? spec.getLocalTtl() : local.getTtl();
+        if (spec.expires() && spec.getTtl().compareTo(ttl) < 0) {
+            // Une entrée locale ne survit pas à son entrée Redis
+            ttl = spec.getTtl();
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.debug("Création du cache à deux niveaux '{}' (L1: {} entrées max, TTL {} ; Redis: TTL {}, "
+                + "rechargement anticipé {})", name, maxSize, ttl, spec.getTtl(), spec.getRefreshAhead());
+        return new TwoLevelCache(name, remoteCache, localCache, invalidationPublisher, loadLeases, spec, refresher,
+                batchOperations, meterRegistry);
+    }
+
+    /**
+     * Applique une invalidation reçue d'une autre instance sur le cache local concerné
+     */
+    public void handleInvalidation(CacheInvalidationMessage message) {
+        if (invalidationPublisher.getInstanceId().equals(message.getOrigin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (message.getKey() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(message.getKey());
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.close();
+    }
+}
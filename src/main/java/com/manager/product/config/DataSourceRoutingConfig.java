@@ -0,0 +1,96 @@
+package com.manager.product.config;
+
+import com.manager.product.datasource.ReadYourWritesFilter;
+import com.manager.product.datasource.ReadYourWritesGuard;
+import com.manager.product.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routage des transactions en lecture seule vers les réplicas (app.datasource.routing.enabled=true).
+ * Remplace la DataSource auto-configurée : spring.datasource.* et spring.datasource.hikari.* décrivent le primaire.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard(StringRedisTemplate stringRedisTemplate,
+                                                   ReplicaRoutingProperties properties) {
+        return new ReadYourWritesGuard(stringRedisTemplate, properties.getStickyWindow(),
+                properties.getStickyKeyPrefix());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesGuard guard, ReplicaRoutingProperties properties) {
+        return new ReadYourWritesFilter(guard, properties.getClientIdHeader());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaRoutingProperties properties,
+                                                             ReadYourWritesGuard guard,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            replicaPools.add(replicaPool(primaryDataSource, properties.getReplicas().get(i), i, meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaPools, guard,
+                properties.getMaxReplicationLag(), properties.getLagQuery(), meterRegistry);
+    }
+
+    /**
+     * DataSource utilisée par JPA, les transactions et les migrations
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        // Valeurs par défaut des pools Hikari : évite d'ouvrir une connexion au démarrage pour les détecter
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    private HikariDataSource replicaPool(HikariDataSource primary,
+                                         ReplicaRoutingProperties.Replica replica,
+                                         int index,
+                                         MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica-" + index);
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setDriverClassName(primary.getDriverClassName());
+        pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+        pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize() != null
+                ? replica.getMaximumPoolSize() : primary.getMaximumPoolSize());
+        pool.setConnectionTimeout(primary.getConnectionTimeout());
+        pool.setReadOnly(true);
+        // Un réplica indisponible au démarrage ne bloque pas l'application : il reste écarté jusqu'à sa vérification
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
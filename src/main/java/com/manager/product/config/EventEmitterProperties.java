@@ -0,0 +1,24 @@
+package com.manager.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés de l'émetteur d'événements Kafka (préfixe "app.events.emitter")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.events.emitter")
+public class EventEmitterProperties {
+
+    /**
+     * Nombre maximal d'envois non encore acquittés par le broker ; au-delà, les envois sont refusés
+     */
+    private int maxInFlight = 10_000;
+
+    /**
+     * Attente maximale d'une place libre avant de refuser un envoi
+     */
+    private Duration acquireTimeout = Duration.ofMillis(100);
+}
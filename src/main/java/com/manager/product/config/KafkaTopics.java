@@ -5,6 +5,11 @@ public enum KafkaTopics {
     PRODUCT_CREATED("product-created"),
     PRODUCT_UPDATED("product-updated"),
     PRODUCT_DELETED("product-deleted");
+
+    /**
+     * En-tête des événements product-deleted correspondant à une suppression définitive (et non logique)
+     */
+    public static final String HARD_DELETE_HEADER = "product-hard-delete";
     
     private final String topicName;
     
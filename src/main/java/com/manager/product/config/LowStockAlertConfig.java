@@ -0,0 +1,9 @@
+package com.manager.product.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LowStockAlertProperties.class)
+public class LowStockAlertConfig {
+}
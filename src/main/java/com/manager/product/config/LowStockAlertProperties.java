@@ -0,0 +1,62 @@
+package com.manager.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés du flux d'alertes de stock faible (préfixe "app.low-stock-alerts")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.low-stock-alerts")
+public class LowStockAlertProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Canal Redis pub/sub sur lequel les variations de stock sont diffusées à toutes les instances
+     */
+    private String channel = "product-low-stock";
+
+    /**
+     * Clé Redis du compteur des numéros d'événement (hash tag commun avec l'historique pour Redis Cluster)
+     */
+    private String sequenceKey = "{low-stock}:sequence";
+
+    /**
+     * Clé Redis de l'historique borné des derniers événements, relu à la reprise d'un abonnement (Last-Event-ID)
+     */
+    private String historyKey = "{low-stock}:history";
+
+    /**
+     * Nombre d'événements conservés dans l'historique
+     */
+    private int historySize = 1000;
+
+    /**
+     * Seuil maximal accepté à l'abonnement : seules les variations touchant la zone [0, maxThreshold] sont diffusées
+     */
+    private int maxThreshold = 100;
+
+    /**
+     * Nombre maximal d'événements en attente d'émission vers Redis ; au-delà les événements sont abandonnés
+     */
+    private int publishQueueSize = 10_000;
+
+    /**
+     * Nombre maximal d'événements en attente par abonné ; un abonné trop lent est déconnecté
+     * et reprend depuis l'historique en se reconnectant
+     */
+    private int subscriberQueueSize = 256;
+
+    /**
+     * Intervalle des commentaires keep-alive envoyés aux abonnés sans événement
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Durée maximale d'une connexion ; le client se reconnecte ensuite avec Last-Event-ID
+     */
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,40 @@
+package com.manager.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés de configuration de l'outbox des événements produit (préfixe "app.outbox")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    private final Relay relay = new Relay();
+
+    /**
+     * Configuration du relais qui publie les événements de l'outbox sur Kafka
+     */
+    @Data
+    public static class Relay {
+
+        private boolean enabled = true;
+
+        /**
+         * Nombre maximal d'événements publiés par transaction de relais
+         */
+        private int batchSize = 500;
+
+        /**
+         * Attente entre deux passes du relais quand l'outbox a été vidée, en millisecondes
+         */
+        private long lingerMs = 200;
+
+        /**
+         * Délai maximal d'acquittement d'un lot par Kafka avant nouvelle tentative
+         */
+        private Duration sendTimeout = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,226 @@
+package com.manager.product.config;
+
+import com.manager.product.serialization.SerializationFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriétés de configuration du cache produit (préfixe "app.cache")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class ProductCacheProperties {
+
+    /**
+     * Canal Redis pub/sub utilisé pour invalider les caches locaux des autres instances
+     */
+    private String invalidationChannel = "product-cache-invalidation";
+
+    /**
+     * Clé Redis du compteur de génération du catalogue (cache des pages)
+     */
+    private String generationKey = "products-page:generation";
+
+    /**
+     * Canal Redis pub/sub sur lequel chaque nouvelle génération est diffusée aux autres instances
+     */
+    private String generationChannel = "product-catalogue-generation";
+
+    /**
+     * Durée de vie par défaut des entrées Redis des caches sans configuration propre
+     */
+    private Duration defaultTtl = Duration.ofMinutes(30);
+
+    /**
+     * Configuration propre à chaque cache, par nom (app.cache.caches.product.ttl=10m...)
+     */
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    /**
+     * Nombre de threads des rechargements anticipés (refresh-ahead)
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * Format d'écriture des valeurs dans Redis ; les deux formats restent lisibles.
+     * JSON par défaut : smile ne doit être activé qu'une fois toutes les instances capables de le relire.
+     */
+    private SerializationFormat serializationFormat = SerializationFormat.JSON;
+
+    private final Local local = new Local();
+
+    private final Warmup warmup = new Warmup();
+
+    private final Lease lease = new Lease();
+
+    /**
+     * Configuration d'un cache nommé, à défaut la configuration par défaut (defaultTtl, sans rechargement anticipé)
+     */
+    public CacheSpec specFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        if (spec == null) {
+            return defaultSpec();
+        }
+        if (spec.getTtl() == null) {
+            spec.setTtl(defaultTtl);
+        }
+        return spec;
+    }
+
+    public CacheSpec defaultSpec() {
+        CacheSpec spec = new CacheSpec();
+        spec.setTtl(defaultTtl);
+        return spec;
+    }
+
+    /**
+     * Configuration d'un cache : durée de vie dans Redis, valeurs nulles, préfixe des clés,
+     * taille du cache local et rechargement anticipé
+     */
+    @Data
+    public static class CacheSpec {
+
+        /**
+         * Durée de vie des entrées dans Redis (defaultTtl si absente, 0 pour ne jamais expirer)
+         */
+        private Duration ttl;
+
+        /**
+         * Mise en cache des résultats nuls
+         */
+        private boolean cacheNullValues = true;
+
+        /**
+         * Préfixe ajouté devant "nom-du-cache::" dans les clés Redis (changer de préfixe abandonne les entrées existantes)
+         */
+        private String keyPrefix;
+
+        /**
+         * Nombre maximal d'entrées du cache local (max-size du cache local si absent)
+         */
+        private Long localMaxSize;
+
+        /**
+         * Durée de vie dans le cache local (ttl du cache local si absente), bornée par la durée de vie Redis
+         */
+        private Duration localTtl;
+
+        /**
+         * Fraction finale de la durée de vie pendant laquelle une lecture déclenche un rechargement en arrière-plan
+         * (0,2 : entrée relue dans ses derniers 20 %). 0 désactive le rechargement anticipé.
+         */
+        private double refreshAhead;
+
+        public boolean expires() {
+            return ttl != null && !ttl.isZero() && !ttl.isNegative();
+        }
+
+        public boolean refreshesAhead() {
+            return expires() && refreshAhead > 0;
+        }
+    }
+
+    /**
+     * Configuration du cache local (L1) placé devant Redis
+     */
+    @Data
+    public static class Local {
+
+        private boolean enabled = true;
+
+        /**
+         * Nombre maximal d'entrées par cache local
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * Durée de vie d'une entrée dans le cache local
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+
+    /**
+     * Configuration du préchauffage des caches au démarrage, avant que l'instance se déclare prête
+     */
+    @Data
+    public static class Warmup {
+
+        private boolean enabled = true;
+
+        /**
+         * Nombre de produits les plus consultés à précharger dans le cache "product"
+         */
+        private int hotProducts = 1000;
+
+        /**
+         * Nombre de premières pages de la liste des produits à précharger
+         */
+        private int pages = 5;
+
+        private int pageSize = 20;
+
+        /**
+         * Nombre de produits chargés par requête
+         */
+        private int batchSize = 200;
+
+        /**
+         * Nombre de lots chargés en parallèle
+         */
+        private int parallelism = 4;
+
+        /**
+         * Durée maximale du préchauffage ; au-delà l'instance démarre avec un cache partiellement chaud
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+
+        /**
+         * Clé Redis (sorted set) des fréquences de consultation des produits
+         */
+        private String accessKey = "products:access";
+
+        /**
+         * Nombre maximal de produits suivis dans le classement des consultations
+         */
+        private int maxTracked = 10_000;
+
+        /**
+         * Intervalle d'envoi vers Redis des consultations comptées localement
+         */
+        private long accessFlushIntervalMs = 10_000;
+    }
+
+    /**
+     * Configuration des baux de chargement partagés entre instances : sur un défaut de cache,
+     * une seule instance recharge la clé pendant que les autres attendent la valeur dans Redis
+     */
+    @Data
+    public static class Lease {
+
+        private boolean enabled = true;
+
+        /**
+         * Préfixe des clés Redis des baux
+         */
+        private String keyPrefix = "cache-lease:";
+
+        /**
+         * Durée de vie d'un bail : au-delà, une autre instance peut reprendre le chargement
+         */
+        private Duration ttl = Duration.ofSeconds(5);
+
+        /**
+         * Attente maximale de la valeur chargée par une autre instance avant de la charger soi-même
+         */
+        private Duration waitTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Intervalle entre deux lectures de Redis pendant l'attente
+         */
+        private Duration pollInterval = Duration.ofMillis(25);
+    }
+}
@@ -0,0 +1,65 @@
+package com.manager.product.config;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.readmodel.ProductProjection;
+import com.manager.product.readmodel.ReadModelHealthIndicator;
+import com.manager.product.readmodel.ReadModelSnapshotStore;
+import com.manager.product.readmodel.ReadModelUpdater;
+import com.manager.product.repository.ProductRepository;
+import com.manager.product.serialization.ProductEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Modèle de lecture alimenté par les topics produit (app.read-model.enabled=true), servi sous /api/v1/read
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-model", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadModelProperties.class)
+public class ReadModelConfig {
+
+    @Bean
+    public ProductProjection productProjection() {
+        return new ProductProjection();
+    }
+
+    @Bean
+    public ReadModelUpdater readModelUpdater(KafkaProperties kafkaProperties,
+                                             ProductProjection productProjection,
+                                             ProductRepository productRepository,
+                                             PlatformTransactionManager transactionManager,
+                                             ReadModelProperties properties,
+                                             MeterRegistry meterRegistry) {
+        // Offsets gérés par le snapshot : ni groupe de consommateurs ni commit automatique
+        Map<String, Object> consumerProperties = kafkaProperties.buildConsumerProperties(null);
+        consumerProperties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProperties.put(ConsumerConfig.CLIENT_ID_CONFIG, "product-read-model");
+        DefaultKafkaConsumerFactory<String, ProductResponseDto> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                consumerProperties, new StringDeserializer(), new ProductEventDeserializer());
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        return new ReadModelUpdater(consumerFactory, productProjection,
+                new ReadModelSnapshotStore(properties.getSnapshotDirectory()),
+                productRepository, readOnlyTransaction, properties, meterRegistry);
+    }
+
+    @Bean
+    public ReadModelHealthIndicator readModelHealthIndicator(ReadModelUpdater readModelUpdater,
+                                                             ProductProjection productProjection) {
+        return new ReadModelHealthIndicator(readModelUpdater, productProjection);
+    }
+}
@@ -0,0 +1,34 @@
+package com.manager.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriétés du modèle de lecture alimenté par les topics produit (préfixe "app.read-model")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.read-model")
+public class ReadModelProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Répertoire du snapshot de la projection et des offsets associés
+     */
+    private String snapshotDirectory = "data/read-model";
+
+    /**
+     * Intervalle minimal entre deux snapshots
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(1);
+
+    /**
+     * Sans snapshot exploitable (absent, ou plus ancien que la rétention des topics), la projection est
+     * initialisée depuis la base avant de suivre les topics ; sinon elle rejoue les topics depuis le début
+     */
+    private boolean bootstrapFromDatabase = true;
+
+    private Duration pollTimeout = Duration.ofSeconds(1);
+}
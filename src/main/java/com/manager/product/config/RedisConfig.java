@@ -1,32 +1,135 @@
 package com.manager.product.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.manager.product.alert.LowStockAlertHub;
+import com.manager.product.cache.CacheBatchOperations;
+import com.manager.product.cache.CacheInvalidationListener;
+import com.manager.product.cache.CacheInvalidationPublisher;
+import com.manager.product.cache.CacheLoadLeases;
+import com.manager.product.cache.CacheRefresher;
+import com.manager.product.cache.ProductPageCache;
+import com.manager.product.cache.TwoLevelCacheManager;
+import com.manager.product.serialization.VersionedRedisSerializer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(ProductCacheProperties.class)
 public class RedisConfig {
 
-    
+
     @Bean
-    public RedisCacheConfiguration cacheConfiguration(ObjectMapper objectMapper) {
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    public RedisCacheConfiguration cacheConfiguration(ObjectMapper objectMapper, ProductCacheProperties cacheProperties) {
+        // Copie dédiée au cache : le typage par défaut ne doit pas fuir dans les réponses HTTP
+        ObjectMapper cacheObjectMapper = objectMapper.copy();
+        cacheObjectMapper.registerModule(new JavaTimeModule());
+        cacheObjectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer(objectMapper);
+        VersionedRedisSerializer serializer =
+                new VersionedRedisSerializer(cacheObjectMapper, cacheProperties.getSerializationFormat());
 
         return RedisCacheConfiguration.defaultCacheConfig()
                 .serializeValuesWith(
                     RedisSerializationContext.SerializationPair.fromSerializer(serializer)
                 );
     }
+
+    /**
+     * CacheManager Redis, enveloppé par un cache local (L1) quand app.cache.local.enabled=true.
+     * Durée de vie, valeurs nulles et préfixe sont propres à chaque cache (app.cache.caches.*) ;
+     * le rechargement anticipé et la taille du cache local nécessitent le cache local.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisCacheConfiguration cacheConfiguration,
+                                     ProductCacheProperties cacheProperties,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfigurationFor(cacheConfiguration, cacheProperties.defaultSpec()));
+        cacheProperties.getCaches().keySet().forEach(name -> builder.withCacheConfiguration(name,
+                cacheConfigurationFor(cacheConfiguration, cacheProperties.specFor(name))));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (!cacheProperties.getLocal().isEnabled()) {
+            return redisCacheManager;
+        }
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(
+                stringRedisTemplate, objectMapper, cacheProperties.getInvalidationChannel());
+        CacheLoadLeases loadLeases = new CacheLoadLeases(stringRedisTemplate, cacheProperties.getLease());
+        CacheRefresher refresher = new CacheRefresher(stringRedisTemplate, cacheProperties.getRefreshThreads());
+        return new TwoLevelCacheManager(redisCacheManager, cacheProperties, publisher, loadLeases, refresher,
+                new CacheBatchOperations(stringRedisTemplate), meterRegistry);
+    }
+
+    /**
+     * Durée de vie, valeurs nulles et préfixe des clés d'un cache
+     */
+    private static RedisCacheConfiguration cacheConfigurationFor(RedisCacheConfiguration base,
+                                                                 ProductCacheProperties.CacheSpec spec) {
+        RedisCacheConfiguration configuration = base.entryTtl(spec.expires() ? spec.getTtl() : Duration.ZERO);
+        if (!spec.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (spec.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(spec.getKeyPrefix());
+        }
+        return configuration;
+    }
+
+    /**
+     * Conteneur pub/sub Redis ; écoute notamment les invalidations publiées par les autres instances
+     * pour purger le cache local, et les nouvelles générations du catalogue
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CacheManager cacheManager,
+                                                                       ProductCacheProperties cacheProperties,
+                                                                       ObjectMapper objectMapper,
+                                                                       ProductPageCache productPageCache,
+                                                                       LowStockAlertHub lowStockAlertHub) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Un seul thread de distribution : les messages sont traités dans l'ordre de publication
+        // (les alertes de stock faible sont numérotées et dédoublonnées par numéro croissant)
+        container.setTaskExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-listener");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(new CacheInvalidationListener(twoLevelCacheManager, objectMapper),
+                    new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        }
+        if (productPageCache.isEnabled()) {
+            container.addMessageListener(productPageCache, new ChannelTopic(cacheProperties.getGenerationChannel()));
+        }
+        if (lowStockAlertHub.isEnabled()) {
+            container.addMessageListener(lowStockAlertHub, new ChannelTopic(lowStockAlertHub.getChannel()));
+        }
+        return container;
+    }
 }
@@ -0,0 +1,69 @@
+package com.manager.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriétés du routage des transactions en lecture seule vers les réplicas (préfixe "app.datasource.routing")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Sans routage, toutes les connexions proviennent de spring.datasource (primaire)
+     */
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Durée pendant laquelle les lectures d'un client sont servies par le primaire après une écriture
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * Préfixe des clés Redis portant la fenêtre collante de chaque client, partagée entre instances
+     */
+    private String stickyKeyPrefix = "read-your-writes:";
+
+    /**
+     * En-tête identifiant le client ; à défaut, l'adresse distante est utilisée
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * Intervalle entre deux vérifications de santé des réplicas, en millisecondes
+     */
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * Retard de réplication au-delà duquel un réplica est écarté
+     */
+    private Duration maxReplicationLag = Duration.ofSeconds(10);
+
+    /**
+     * Requête renvoyant le retard de réplication en secondes (vide : seule la connexion est vérifiée)
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    /**
+     * Connexion à un réplica ; identifiants et taille de pool repris du primaire s'ils sont absents
+     */
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private Integer maximumPoolSize;
+    }
+}
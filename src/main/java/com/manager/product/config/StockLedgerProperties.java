@@ -0,0 +1,42 @@
+package com.manager.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Propriétés du registre de stock Redis (préfixe "app.stock.ledger")
+ */
+@Data
+@ConfigurationProperties(prefix = "app.stock.ledger")
+public class StockLedgerProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Catégories dont le stock est géré dans Redis (comparaison insensible à la casse)
+     */
+    private Set<String> categories = new HashSet<>();
+
+    /**
+     * Produits dont le stock est géré dans Redis, quelle que soit leur catégorie
+     */
+    private Set<Long> productIds = new HashSet<>();
+
+    /**
+     * Nombre maximal de produits écrits en base par passe de write-behind
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * Intervalle entre deux passes de write-behind vers PostgreSQL, en millisecondes
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * Intervalle entre deux réconciliations Redis / PostgreSQL, en millisecondes
+     */
+    private long reconcileIntervalMs = 60_000;
+}
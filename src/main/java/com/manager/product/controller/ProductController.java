@@ -1,22 +1,45 @@
 package com.manager.product.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.manager.product.alert.LowStockAlertHub;
+import com.manager.product.cache.ProductAccessRecorder;
+import com.manager.product.cache.ProductPageCache;
+import com.manager.product.dto.BatchCreateProductsDto;
+import com.manager.product.dto.BatchUpdateProductsDto;
 import com.manager.product.dto.CreateProductDto;
+import com.manager.product.dto.CursorPageDto;
+import com.manager.product.dto.ProductLookupDto;
+import com.manager.product.dto.ProductLookupItemDto;
+import com.manager.product.dto.ProductQueryDto;
+import com.manager.product.dto.ProductQueryResultDto;
 import com.manager.product.dto.ProductResponseDto;
 import com.manager.product.dto.UpdateProductDto;
 import com.manager.product.service.ProductService;
+import com.manager.product.service.StockService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Contrôleur REST pour la gestion des produits
@@ -28,7 +51,15 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_LOOKUP_IDS_IN_URL = 100;
+
     private final ProductService productService;
+    private final StockService stockService;
+    private final ObjectMapper objectMapper;
+    private final ProductAccessRecorder productAccessRecorder;
+    private final LowStockAlertHub lowStockAlertHub;
+    private final ProductPageCache productPageCache;
 
     /**
      * GET /api/v1/products - Récupère tous les produits avec pagination
@@ -38,17 +69,67 @@ public class ProductController {
             @PageableDefault(size = 20) Pageable pageable) {
         log.debug("GET /api/v1/products - Récupération de tous les produits");
         Page<ProductResponseDto> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(products);
+        return conditional(ProductETags.of(products)).body(products);
+    }
+
+    /**
+     * GET /api/v1/products?after={cursor}&size={n} - Récupère les produits par curseur (sans comptage total).
+     * Un curseur vide renvoie la première page.
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDto<ProductResponseDto>> getProductsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("GET /api/v1/products?after={}&size={} - Récupération par curseur", after, size);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_CURSOR_PAGE_SIZE);
+        }
+        CursorPageDto<ProductResponseDto> products = productService.getProductsAfter(after, size);
+        return conditional(ProductETags.of(products)).body(products);
+    }
+
+    /**
+     * GET /api/v1/products?ids=1,2,3 - Récupère plusieurs produits par ID en un appel, dans l'ordre demandé,
+     * avec found=false pour les IDs inexistants
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ProductLookupItemDto>> getProductsByIds(@RequestParam List<Long> ids) {
+        log.debug("GET /api/v1/products?ids - Récupération groupée de {} produits", ids.size());
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS_IN_URL) {
+            throw new IllegalArgumentException("Le nombre d'IDs doit être compris entre 1 et " + MAX_LOOKUP_IDS_IN_URL
+                    + " (au-delà, utiliser POST /api/v1/products/lookup)");
+        }
+        List<ProductLookupItemDto> products = productService.getProductsByIds(ids);
+        return conditional(ProductETags.ofLookup(products)).body(products);
+    }
+
+    /**
+     * POST /api/v1/products/lookup - Variante de la lecture groupée par ID pour les listes longues
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<ProductLookupItemDto>> lookupProducts(
+            @Valid @RequestBody ProductLookupDto productLookupDto) {
+        log.debug("POST /api/v1/products/lookup - Récupération groupée de {} produits",
+                productLookupDto.getIds().size());
+        return ResponseEntity.ok(productService.getProductsByIds(productLookupDto.getIds()));
     }
 
     /**
      * GET /api/v1/products/active - Récupère tous les produits actifs
      */
     @GetMapping("/active")
-    public ResponseEntity<List<ProductResponseDto>> getActiveProducts() {
+    public ResponseEntity<List<ProductResponseDto>> getActiveProducts(WebRequest webRequest) {
         log.debug("GET /api/v1/products/active - Récupération des produits actifs");
-        List<ProductResponseDto> products = productService.getActiveProducts();
-        return ResponseEntity.ok(products);
+        return catalogueList(webRequest, productService::getActiveProducts, ProductETags::of, "active");
+    }
+
+    /**
+     * GET /api/v1/products/active (Accept: application/x-ndjson) - Diffuse les produits actifs en flux
+     */
+    @GetMapping(value = "/active", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActiveProducts() {
+        log.debug("GET /api/v1/products/active - Diffusion NDJSON des produits actifs");
+        return ndjson(productService::streamActiveProducts);
     }
 
     /**
@@ -58,7 +139,10 @@ public class ProductController {
     public ResponseEntity<ProductResponseDto> getProductById(@PathVariable Long id) {
         log.debug("GET /api/v1/products/{} - Récupération du produit", id);
         ProductResponseDto product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        productAccessRecorder.record(id);
+        return conditional(ProductETags.of(product))
+                .lastModified(ProductETags.lastModified(product))
+                .body(product);
     }
 
     /**
@@ -68,7 +152,9 @@ public class ProductController {
     public ResponseEntity<ProductResponseDto> getProductBySku(@PathVariable String sku) {
         log.debug("GET /api/v1/products/sku/{} - Récupération du produit", sku);
         ProductResponseDto product = productService.getProductBySku(sku);
-        return ResponseEntity.ok(product);
+        return conditional(ProductETags.of(product))
+                .lastModified(ProductETags.lastModified(product))
+                .body(product);
     }
 
     /**
@@ -82,6 +168,30 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(product);
     }
 
+    /**
+     * POST /api/v1/products/batch - Crée un lot de produits
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponseDto>> createProducts(
+            @Valid @RequestBody BatchCreateProductsDto batchCreateProductsDto) {
+        log.debug("POST /api/v1/products/batch - Création d'un lot de {} produits",
+                batchCreateProductsDto.getProducts().size());
+        List<ProductResponseDto> products = productService.createProducts(batchCreateProductsDto.getProducts());
+        return ResponseEntity.status(HttpStatus.CREATED).body(products);
+    }
+
+    /**
+     * PUT /api/v1/products/batch - Met à jour un lot de produits
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<ProductResponseDto>> updateProducts(
+            @Valid @RequestBody BatchUpdateProductsDto batchUpdateProductsDto) {
+        log.debug("PUT /api/v1/products/batch - Mise à jour d'un lot de {} produits",
+                batchUpdateProductsDto.getProducts().size());
+        List<ProductResponseDto> products = productService.updateProducts(batchUpdateProductsDto.getProducts());
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * PUT /api/v1/products/{id} - Met à jour un produit existant
      */
@@ -119,10 +229,37 @@ public class ProductController {
      */
     @GetMapping("/search")
     public ResponseEntity<List<ProductResponseDto>> searchProducts(
-            @RequestParam String name) {
+            @RequestParam String name,
+            WebRequest webRequest) {
         log.debug("GET /api/v1/products/search?name={} - Recherche de produits", name);
-        List<ProductResponseDto> products = productService.searchProductsByName(name);
-        return ResponseEntity.ok(products);
+        return catalogueList(webRequest, () -> productService.searchProductsByName(name), ProductETags::of,
+                "search", name);
+    }
+
+    /**
+     * GET /api/v1/products/search?q={texte} - Recherche paginée, classée par pertinence et tolérante aux fautes
+     */
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity<Page<ProductResponseDto>> searchProductsRanked(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+        log.debug("GET /api/v1/products/search?q={} - Recherche classée de produits", q);
+        return catalogueList(webRequest, () -> productService.searchProducts(q, pageable), ProductETags::of,
+                "search-ranked", q, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+    }
+
+    /**
+     * GET /api/v1/products/query - Recherche multicritère paginée (nom, catégories, prix, disponibilité, stock)
+     * avec le nombre de produits par catégorie et par tranche de prix
+     */
+    @GetMapping("/query")
+    public ResponseEntity<ProductQueryResultDto> queryProducts(
+            ProductQueryDto criteria,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.debug("GET /api/v1/products/query - Recherche multicritère: {}", criteria);
+        ProductQueryResultDto result = productService.queryProducts(criteria, pageable);
+        return conditional(ProductETags.of(result)).body(result);
     }
 
     /**
@@ -130,10 +267,21 @@ public class ProductController {
      */
     @GetMapping("/category/{category}")
     public ResponseEntity<List<ProductResponseDto>> getProductsByCategory(
-            @PathVariable String category) {
+            @PathVariable String category,
+            WebRequest webRequest) {
         log.debug("GET /api/v1/products/category/{} - Récupération par catégorie", category);
-        List<ProductResponseDto> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+        return catalogueList(webRequest, () -> productService.getProductsByCategory(category), ProductETags::of,
+                "category", category);
+    }
+
+    /**
+     * GET /api/v1/products/category/{category} (Accept: application/x-ndjson) - Diffuse les produits d'une catégorie
+     */
+    @GetMapping(value = "/category/{category}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProductsByCategory(
+            @PathVariable String category) {
+        log.debug("GET /api/v1/products/category/{} - Diffusion NDJSON par catégorie", category);
+        return ndjson(consumer -> productService.streamProductsByCategory(category, consumer));
     }
 
     /**
@@ -142,20 +290,29 @@ public class ProductController {
     @GetMapping("/price-range")
     public ResponseEntity<List<ProductResponseDto>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
+            @RequestParam BigDecimal maxPrice,
+            WebRequest webRequest) {
         log.debug("GET /api/v1/products/price-range?minPrice={}&maxPrice={}", minPrice, maxPrice);
-        List<ProductResponseDto> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        return catalogueList(webRequest, () -> productService.getProductsByPriceRange(minPrice, maxPrice),
+                ProductETags::of, "price-range", minPrice, maxPrice);
     }
 
     /**
      * GET /api/v1/products/available - Récupère les produits disponibles (en stock)
      */
     @GetMapping("/available")
-    public ResponseEntity<List<ProductResponseDto>> getAvailableProducts() {
+    public ResponseEntity<List<ProductResponseDto>> getAvailableProducts(WebRequest webRequest) {
         log.debug("GET /api/v1/products/available - Récupération des produits disponibles");
-        List<ProductResponseDto> products = productService.getAvailableProducts();
-        return ResponseEntity.ok(products);
+        return catalogueList(webRequest, productService::getAvailableProducts, ProductETags::of, "available");
+    }
+
+    /**
+     * GET /api/v1/products/available (Accept: application/x-ndjson) - Diffuse les produits disponibles
+     */
+    @GetMapping(value = "/available", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAvailableProducts() {
+        log.debug("GET /api/v1/products/available - Diffusion NDJSON des produits disponibles");
+        return ndjson(productService::streamAvailableProducts);
     }
 
     /**
@@ -163,10 +320,34 @@ public class ProductController {
      */
     @GetMapping("/low-stock")
     public ResponseEntity<List<ProductResponseDto>> getLowStockProducts(
-            @RequestParam(defaultValue = "10") Integer threshold) {
+            @RequestParam(defaultValue = "10") Integer threshold,
+            WebRequest webRequest) {
         log.debug("GET /api/v1/products/low-stock?threshold={}", threshold);
-        List<ProductResponseDto> products = productService.getLowStockProducts(threshold);
-        return ResponseEntity.ok(products);
+        return catalogueList(webRequest, () -> productService.getLowStockProducts(threshold), ProductETags::of,
+                "low-stock", threshold);
+    }
+
+    /**
+     * GET /api/v1/products/low-stock (Accept: application/x-ndjson) - Diffuse les produits avec stock faible
+     */
+    @GetMapping(value = "/low-stock", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLowStockProducts(
+            @RequestParam(defaultValue = "10") Integer threshold) {
+        log.debug("GET /api/v1/products/low-stock?threshold={} - Diffusion NDJSON", threshold);
+        return ndjson(consumer -> productService.streamLowStockProducts(threshold, consumer));
+    }
+
+    /**
+     * GET /api/v1/products/low-stock (Accept: text/event-stream) - Notifie les passages sous le seuil
+     * (événements low-stock) et les retours au-dessus (restocked). L'en-tête Last-Event-ID reprend le flux
+     * après une déconnexion ; un événement reset signale que la liste doit être relue.
+     */
+    @GetMapping(value = "/low-stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeLowStockAlerts(
+            @RequestParam(defaultValue = "10") Integer threshold,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("GET /api/v1/products/low-stock?threshold={} - Flux SSE, reprise après {}", threshold, lastEventId);
+        return lowStockAlertHub.subscribe(threshold, lastEventId);
     }
 
     /**
@@ -178,7 +359,7 @@ public class ProductController {
             @RequestBody Map<String, Integer> request) {
         log.debug("PATCH /api/v1/products/{}/stock/increase", id);
         Integer quantity = request.get("quantity");
-        ProductResponseDto product = productService.updateStock(id, quantity, true);
+        ProductResponseDto product = stockService.adjustStock(id, quantity, true);
         return ResponseEntity.ok(product);
     }
 
@@ -191,7 +372,56 @@ public class ProductController {
             @RequestBody Map<String, Integer> request) {
         log.debug("PATCH /api/v1/products/{}/stock/decrease", id);
         Integer quantity = request.get("quantity");
-        ProductResponseDto product = productService.updateStock(id, quantity, false);
+        ProductResponseDto product = stockService.adjustStock(id, quantity, false);
         return ResponseEntity.ok(product);
     }
-}
\ No newline at end of file
+
+    /**
+     * Réponse 200 portant l'ETag des produits retournés : Spring répond 304 sans corps lorsque
+     * If-None-Match (ou If-Modified-Since) correspond. Les clients doivent revalider à chaque lecture.
+     */
+    private static ResponseEntity.BodyBuilder conditional(String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache());
+    }
+
+    /**
+     * Liste filtrée dont l'ETag vient de la génération du catalogue : un If-None-Match à jour reçoit 304
+     * sans requête SQL. Sans cache (donc sans génération), l'ETag est calculé sur le résultat.
+     */
+    private <T> ResponseEntity<T> catalogueList(WebRequest webRequest, Supplier<T> loader,
+                                                Function<T, String> contentETag,
+                                                String resource, Object... parameters) {
+        if (!productPageCache.isEnabled()) {
+            T products = loader.get();
+            return conditional(contentETag.apply(products)).body(products);
+        }
+        String eTag = ProductETags.ofCatalogue(productPageCache.currentGeneration(), resource, parameters);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return conditional(eTag).body(loader.get());
+    }
+
+    /**
+     * Écrit chaque produit sur une ligne JSON dès qu'il est lu, sans construire la liste complète
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<ProductResponseDto>> source) {
+        ObjectWriter writer = objectMapper.writerFor(ProductResponseDto.class);
+        StreamingResponseBody body = outputStream -> source.accept(product -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(product));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,115 @@
+package com.manager.product.controller;
+
+import com.manager.product.dto.CursorPageDto;
+import com.manager.product.dto.ProductLookupItemDto;
+import com.manager.product.dto.ProductQueryResultDto;
+import com.manager.product.dto.ProductResponseDto;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Calcul des ETags des ressources produit à partir de la version de chaque produit (ID, date de mise à jour
+ * et quantité, cette dernière pouvant changer dans le registre Redis avant d'être reportée en base).
+ * Les ETags des listes couvrent aussi les métadonnées de pagination (et les facettes) présentes dans la réponse.
+ * Les listes filtrées utilisent de préférence l'ETag de la génération du catalogue, vérifiable sans requête SQL.
+ */
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String of(ProductResponseDto product) {
+        return hash(appendVersion(new StringBuilder(), product));
+    }
+
+    static String of(List<ProductResponseDto> products) {
+        return hash(appendVersions(new StringBuilder(), products));
+    }
+
+    static String of(Page<ProductResponseDto> page) {
+        StringBuilder version = new StringBuilder()
+                .append(page.getNumber()).append('/')
+                .append(page.getSize()).append('/')
+                .append(page.getTotalElements()).append('|');
+        return hash(appendVersions(version, page.getContent()));
+    }
+
+    static String of(CursorPageDto<ProductResponseDto> page) {
+        StringBuilder version = new StringBuilder()
+                .append(page.isHasNext()).append('|');
+        return hash(appendVersions(version, page.getContent()));
+    }
+
+    /**
+     * Lecture groupée : version des produits trouvés et ID des produits absents, dans l'ordre de la réponse
+     */
+    static String ofLookup(List<ProductLookupItemDto> items) {
+        StringBuilder version = new StringBuilder();
+        for (ProductLookupItemDto item : items) {
+            if (item.isFound()) {
+                appendVersion(version, item.getProduct()).append(';');
+            } else {
+                version.append(item.getId()).append(":absent;");
+            }
+        }
+        return hash(version);
+    }
+
+    static String of(ProductQueryResultDto result) {
+        StringBuilder version = new StringBuilder()
+                .append(result.getPage()).append('/')
+                .append(result.getSize()).append('/')
+                .append(result.getTotalElements()).append('|');
+        result.getFacets().getCategories().forEach(facet ->
+                version.append(facet.getCategory()).append('=').append(facet.getCount()).append(';'));
+        result.getFacets().getPriceBuckets().forEach(facet ->
+                version.append(facet.getMin()).append('-').append(facet.getMax()).append('=').append(facet.getCount()).append(';'));
+        return hash(appendVersions(version.append('|'), result.getContent()));
+    }
+
+    /**
+     * ETag d'une liste calculé sans la lire : génération du catalogue, ressource et paramètres de la requête.
+     * Toute écriture validée change la génération, donc l'ETag de toutes les listes.
+     */
+    static String ofCatalogue(long generation, String resource, Object... parameters) {
+        StringBuilder version = new StringBuilder("g").append(generation).append('|').append(resource);
+        for (Object parameter : parameters) {
+            version.append('|').append(parameter);
+        }
+        return hash(version);
+    }
+
+    /**
+     * Date de dernière modification pour If-Modified-Since (-1 si inconnue)
+     */
+    static long lastModified(ProductResponseDto product) {
+        if (product.getUpdatedAt() == null) {
+            return -1;
+        }
+        Instant instant = product.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return instant.toEpochMilli();
+    }
+
+    private static StringBuilder appendVersions(StringBuilder version, List<ProductResponseDto> products) {
+        for (ProductResponseDto product : products) {
+            appendVersion(version, product).append(';');
+        }
+        return version;
+    }
+
+    private static StringBuilder appendVersion(StringBuilder version, ProductResponseDto product) {
+        return version.append(product.getId()).append(':')
+                .append(product.getUpdatedAt()).append(':')
+                .append(product.getQuantityInStock()).append(':')
+                .append(product.getActive());
+    }
+
+    private static String hash(StringBuilder version) {
+        return "\"" + DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
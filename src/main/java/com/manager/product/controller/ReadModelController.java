@@ -0,0 +1,108 @@
+package com.manager.product.controller;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.exception.ProductNotFoundException;
+import com.manager.product.readmodel.ProductProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Lectures servies par le modèle de lecture en mémoire, sans accès à la base.
+ * Cohérence à terme : une écriture y apparaît une fois relayée par l'outbox puis consommée.
+ */
+@RestController
+@RequestMapping("/api/v1/read/products")
+@ConditionalOnProperty(prefix = "app.read-model", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class ReadModelController {
+
+    private final ProductProjection projection;
+
+    /**
+     * GET /api/v1/read/products/{id} - Récupère un produit depuis le modèle de lecture
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable Long id) {
+        log.debug("GET /api/v1/read/products/{} - Lecture du modèle de lecture", id);
+        ProductResponseDto product = projection.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Produit non trouvé avec l'ID: " + id));
+        return conditional(ProductETags.of(product))
+                .lastModified(ProductETags.lastModified(product))
+                .body(product);
+    }
+
+    /**
+     * GET /api/v1/read/products/sku/{sku} - Récupère un produit par son SKU
+     */
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<ProductResponseDto> getProductBySku(@PathVariable String sku) {
+        log.debug("GET /api/v1/read/products/sku/{} - Lecture du modèle de lecture", sku);
+        ProductResponseDto product = projection.findBySku(sku)
+                .orElseThrow(() -> new ProductNotFoundException("Produit non trouvé avec le SKU: " + sku));
+        return conditional(ProductETags.of(product))
+                .lastModified(ProductETags.lastModified(product))
+                .body(product);
+    }
+
+    /**
+     * GET /api/v1/read/products/active - Récupère les produits actifs
+     */
+    @GetMapping("/active")
+    public ResponseEntity<List<ProductResponseDto>> getActiveProducts() {
+        return list(projection.findActive());
+    }
+
+    /**
+     * GET /api/v1/read/products/category/{category} - Récupère les produits actifs d'une catégorie
+     */
+    @GetMapping("/category/{category}")
+    public ResponseEntity<List<ProductResponseDto>> getProductsByCategory(@PathVariable String category) {
+        return list(projection.findActiveByCategory(category));
+    }
+
+    /**
+     * GET /api/v1/read/products/price-range - Récupère les produits actifs dans une gamme de prix
+     */
+    @GetMapping("/price-range")
+    public ResponseEntity<List<ProductResponseDto>> getProductsByPriceRange(
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice) {
+        return list(projection.findActiveByPriceBetween(minPrice, maxPrice));
+    }
+
+    /**
+     * GET /api/v1/read/products/available - Récupère les produits disponibles
+     */
+    @GetMapping("/available")
+    public ResponseEntity<List<ProductResponseDto>> getAvailableProducts() {
+        return list(projection.findAvailable());
+    }
+
+    /**
+     * GET /api/v1/read/products/low-stock - Récupère les produits avec stock faible
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<ProductResponseDto>> getLowStockProducts(
+            @RequestParam(defaultValue = "10") Integer threshold) {
+        return list(projection.findLowStock(threshold));
+    }
+
+    private static ResponseEntity<List<ProductResponseDto>> list(List<ProductResponseDto> products) {
+        return conditional(ProductETags.of(products)).body(products);
+    }
+
+    private static ResponseEntity.BodyBuilder conditional(String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache());
+    }
+}
@@ -0,0 +1,44 @@
+package com.manager.product.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rattache le client de la requête au thread courant pour le {@link ReadYourWritesGuard}
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesGuard guard;
+    private final String clientIdHeader;
+
+    public ReadYourWritesFilter(ReadYourWritesGuard guard, String clientIdHeader) {
+        this.guard = guard;
+        this.clientIdHeader = clientIdHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        guard.bind(clientId(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            guard.unbind();
+        }
+    }
+
+    /**
+     * Sans en-tête, plusieurs clients derrière une même adresse partagent la fenêtre collante :
+     * ils lisent plus souvent sur le primaire, sans perdre la cohérence
+     */
+    private String clientId(HttpServletRequest request) {
+        String header = request.getHeader(clientIdHeader);
+        return StringUtils.hasText(header) ? header : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,112 @@
+package com.manager.product.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Garantit qu'un client relit ses propres écritures : pendant la fenêtre collante qui suit une écriture,
+ * ses transactions en lecture seule sont servies par le primaire plutôt que par un réplica en retard.
+ * Le client courant est rattaché au thread par {@link ReadYourWritesFilter}.
+ * La fenêtre est partagée entre instances par une clé Redis à TTL, pour rester valable derrière un répartiteur
+ * sans affinité de session ; une copie locale évite l'aller-retour Redis quand l'instance a reçu l'écriture.
+ * Redis indisponible : les lectures vont au primaire, la cohérence prime sur la répartition.
+ */
+@Slf4j
+public class ReadYourWritesGuard {
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration stickyWindow;
+    private final String keyPrefix;
+
+    public ReadYourWritesGuard(StringRedisTemplate redisTemplate, Duration stickyWindow, String keyPrefix) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(100_000)
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.stickyWindow = stickyWindow;
+        this.keyPrefix = keyPrefix;
+    }
+
+    public void bind(String clientId) {
+        CURRENT.set(new RequestState(clientId));
+    }
+
+    /**
+     * Détache le client du thread ; une écriture de la requête relance la fenêtre collante à partir de sa fin,
+     * pour couvrir les transactions longues
+     */
+    public void unbind() {
+        RequestState state = CURRENT.get();
+        CURRENT.remove();
+        if (state != null && state.wrote) {
+            markRecentWriter(state.clientId);
+        }
+    }
+
+    /**
+     * Appelé à l'ouverture d'une connexion en écriture ; la fenêtre est publiée dès la première écriture,
+     * avant la réponse, pour qu'une lecture suivante sur une autre instance la voie
+     */
+    void onWrite() {
+        RequestState state = CURRENT.get();
+        if (state != null && !state.wrote) {
+            state.wrote = true;
+            markRecentWriter(state.clientId);
+        }
+    }
+
+    /**
+     * Vrai si le client courant a écrit dans cette requête ou pendant la fenêtre collante.
+     * Redis n'est interrogé qu'une fois par requête.
+     */
+    boolean requiresPrimary() {
+        RequestState state = CURRENT.get();
+        if (state == null) {
+            return false;
+        }
+        if (state.wrote || recentWriters.getIfPresent(state.clientId) != null) {
+            return true;
+        }
+        if (state.sharedWindow == null) {
+            state.sharedWindow = isRecentWriterElsewhere(state.clientId);
+        }
+        return state.sharedWindow;
+    }
+
+    private void markRecentWriter(String clientId) {
+        recentWriters.put(clientId, Boolean.TRUE);
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + clientId, "1", stickyWindow);
+        } catch (RuntimeException e) {
+            log.warn("Fenêtre collante non publiée dans Redis pour {}: {}", clientId, e.getMessage());
+        }
+    }
+
+    private boolean isRecentWriterElsewhere(String clientId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(keyPrefix + clientId));
+        } catch (RuntimeException e) {
+            log.debug("Fenêtre collante illisible dans Redis, lecture sur le primaire: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private static final class RequestState {
+
+        private final String clientId;
+        private boolean wrote;
+        private Boolean sharedWindow;
+
+        private RequestState(String clientId) {
+            this.clientId = clientId;
+        }
+    }
+}
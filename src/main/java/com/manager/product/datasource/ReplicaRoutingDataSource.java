@@ -0,0 +1,161 @@
+package com.manager.product.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Oriente les transactions en lecture seule vers les réplicas sains (round-robin) et tout le reste vers le primaire.
+ * Doit être placé derrière un LazyConnectionDataSourceProxy : la connexion n'est alors choisie qu'à la première
+ * requête SQL, une fois le caractère lecture seule de la transaction connu.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final ReadYourWritesGuard guard;
+    private final Duration maxReplicationLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryWrites;
+    private final Counter primarySticky;
+    private final Counter primaryFailover;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary,
+                                    List<HikariDataSource> replicaPools,
+                                    ReadYourWritesGuard guard,
+                                    Duration maxReplicationLag,
+                                    String lagQuery,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.guard = guard;
+        this.maxReplicationLag = maxReplicationLag;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryWrites = routingCounter(meterRegistry, "primary", "write");
+        this.primarySticky = routingCounter(meterRegistry, "primary", "sticky");
+        this.primaryFailover = routingCounter(meterRegistry, "primary", "failover");
+        this.replicaReads = routingCounter(meterRegistry, "replica", "read");
+        Gauge.builder("datasource.replicas.healthy", replicas,
+                        r -> r.stream().filter(replica -> replica.healthy).count())
+                .description("Nombre de réplicas actuellement utilisés pour les lectures")
+                .register(meterRegistry);
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connexions attribuées par cible et motif")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            guard.onWrite();
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+        if (guard.requiresPrimary()) {
+            primarySticky.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replicaReads.increment();
+                return replica.name;
+            }
+        }
+        primaryFailover.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Vérifie chaque réplica : connexion valide et retard de réplication sous le seuil.
+     * Un réplica écarté est réintégré dès qu'une vérification réussit de nouveau.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = isHealthy(replica);
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Réplica {} réintégré pour les lectures", replica.name);
+                } else {
+                    log.warn("Réplica {} écarté, lectures reportées sur les autres réplicas ou le primaire", replica.name);
+                }
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private boolean isHealthy(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!StringUtils.hasText(lagQuery)) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                if (lagSeconds * 1000 > maxReplicationLag.toMillis()) {
+                    log.debug("Réplica {} en retard de {} s", replica.name, lagSeconds);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.debug("Réplica {} indisponible: {}", replica.name, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        /**
+         * Écarté jusqu'à la première vérification réussie
+         */
+        private volatile boolean healthy;
+
+        private Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+        }
+    }
+}
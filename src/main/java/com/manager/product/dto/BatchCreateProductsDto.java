@@ -0,0 +1,25 @@
+package com.manager.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la création d'un lot de produits
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateProductsDto {
+
+    @NotEmpty(message = "Le lot doit contenir au moins un produit")
+    @Size(max = 1000, message = "Le lot ne peut pas dépasser 1000 produits")
+    private List<@Valid CreateProductDto> products;
+}
@@ -0,0 +1,43 @@
+package com.manager.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la mise à jour d'un lot de produits
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchUpdateProductsDto {
+
+    @NotEmpty(message = "Le lot doit contenir au moins un produit")
+    @Size(max = 1000, message = "Le lot ne peut pas dépasser 1000 produits")
+    private List<@Valid Item> products;
+
+    /**
+     * Modification d'un produit : son ID suivi des mêmes champs que UpdateProductDto
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "L'ID du produit ne peut pas être null")
+        private Long id;
+
+        @Valid
+        @JsonUnwrapped
+        private UpdateProductDto changes = new UpdateProductDto();
+    }
+}
@@ -0,0 +1,27 @@
+package com.manager.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de résultats paginée par curseur (keyset), sans comptage total
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    /**
+     * Curseur opaque à transmettre dans le paramètre "after" pour obtenir la page suivante
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,42 @@
+package com.manager.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Variation du stock d'un produit, diffusée aux abonnés du flux de stock faible.
+ * Le numéro d'événement (croissant) sert d'ID SSE pour reprendre un abonnement.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockEventDto {
+
+    private Long id;
+    private Long productId;
+    private String sku;
+    private String name;
+    private String category;
+    private Boolean active;
+    private Integer previousQuantity;
+    private Integer quantity;
+    private LocalDateTime changedAt;
+
+    public static LowStockEventDto of(ProductResponseDto product, int previousQuantity) {
+        return LowStockEventDto.builder()
+                .productId(product.getId())
+                .sku(product.getSku())
+                .name(product.getName())
+                .category(product.getCategory())
+                .active(product.getActive())
+                .previousQuantity(previousQuantity)
+                .quantity(product.getQuantityInStock())
+                .changedAt(product.getUpdatedAt() != null ? product.getUpdatedAt() : LocalDateTime.now())
+                .build();
+    }
+}
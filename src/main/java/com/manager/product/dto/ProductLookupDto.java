@@ -0,0 +1,25 @@
+package com.manager.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la lecture groupée de produits par ID (variante POST, pour les listes trop longues pour une URL)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductLookupDto {
+
+    @NotEmpty(message = "La liste des IDs ne peut pas être vide")
+    @Size(max = 1000, message = "La liste ne peut pas dépasser 1000 IDs")
+    private List<@NotNull(message = "Un ID ne peut pas être null") Long> ids;
+}
@@ -0,0 +1,26 @@
+package com.manager.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'une lecture groupée pour un ID demandé : found=false (et product absent) si le produit n'existe pas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupItemDto {
+
+    private Long id;
+    private boolean found;
+    private ProductResponseDto product;
+
+    public static ProductLookupItemDto found(ProductResponseDto product) {
+        return new ProductLookupItemDto(product.getId(), true, product);
+    }
+
+    public static ProductLookupItemDto notFound(Long id) {
+        return new ProductLookupItemDto(id, false, null);
+    }
+}
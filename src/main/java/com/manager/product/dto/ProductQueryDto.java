@@ -0,0 +1,49 @@
+package com.manager.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Critères combinables de la recherche multicritère (paramètres de GET /api/v1/products/query).
+ * Seuls les produits actifs sont recherchés ; un critère absent n'est pas appliqué.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductQueryDto {
+
+    /**
+     * Texte contenu dans le nom (insensible à la casse)
+     */
+    private String name;
+
+    /**
+     * Catégories acceptées (insensibles à la casse)
+     */
+    private List<String> categories;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+
+    /**
+     * true : produits en stock uniquement ; false : produits en rupture uniquement
+     */
+    private Boolean available;
+
+    /**
+     * Stock maximal (produits dont la quantité est inférieure ou égale)
+     */
+    private Integer maxStock;
+
+    /**
+     * Bornes des tranches de prix des facettes, croissantes (par défaut 10, 50, 100, 500)
+     */
+    private List<BigDecimal> priceBuckets;
+}
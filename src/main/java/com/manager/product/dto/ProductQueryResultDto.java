@@ -0,0 +1,58 @@
+package com.manager.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Résultat de la recherche multicritère : une page de produits et les facettes calculées
+ * sur l'ensemble des produits correspondant aux critères
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductQueryResultDto {
+
+    private List<ProductResponseDto> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Facets facets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facets {
+
+        private List<CategoryCount> categories;
+        private List<PriceBucketCount> priceBuckets;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryCount {
+
+        private String category;
+        private long count;
+    }
+
+    /**
+     * Tranche [min, max[ ; min est absent pour la première tranche et max pour la dernière
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucketCount {
+
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+    }
+}
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductResponseDto {
 
     private Long id;
@@ -28,4 +28,19 @@ public class ProductResponseDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean available;
+
+    /**
+     * Version du produit, croissante à chaque événement publié (ordre des commits)
+     */
+    private Long version;
+
+    /**
+     * Copie portant une autre quantité (disponibilité recalculée), par exemple celle du registre de stock Redis
+     */
+    public ProductResponseDto withQuantityInStock(int quantity) {
+        return toBuilder()
+                .quantityInStock(quantity)
+                .available(Boolean.TRUE.equals(active) && quantity > 0)
+                .build();
+    }
 }
\ No newline at end of file
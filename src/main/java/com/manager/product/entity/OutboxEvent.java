@@ -0,0 +1,49 @@
+package com.manager.product.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement produit en attente de publication sur Kafka (pattern transactional outbox).
+ * Il est écrit dans la même transaction que la modification du produit, puis relayé et supprimé.
+ * IDs alloués un par un (pas de blocs pré-alloués par instance) : voir ProductEventOutbox.
+ */
+@Entity
+@Table(name = "product_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "payload")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_outbox_seq")
+    @SequenceGenerator(name = "product_outbox_seq", sequenceName = "product_outbox_seq", allocationSize = 1)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "topic", nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String eventKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    /**
+     * Suppression définitive du produit : publiée avec l'en-tête {@link com.manager.product.config.KafkaTopics#HARD_DELETE_HEADER}
+     */
+    @Builder.Default
+    @Column(name = "hard_delete", nullable = false)
+    private boolean hardDelete = false;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
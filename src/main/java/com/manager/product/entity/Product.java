@@ -1,5 +1,6 @@
 package com.manager.product.entity;
 
+import com.manager.product.dto.ProductResponseDto;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -11,9 +12,26 @@ import java.time.LocalDateTime;
 /**
  * Entité Product représentant un produit dans le système
  * Les validations sont gérées au niveau des DTOs, pas de l'entité
+ * Les IDs proviennent d'une séquence allouée par blocs de 50 pour permettre le batching JDBC des insertions
  */
 @Entity
 @Table(name = "products")
+@SqlResultSetMapping(name = Product.RESPONSE_MAPPING, classes = @ConstructorResult(
+        targetClass = ProductResponseDto.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "name", type = String.class),
+                @ColumnResult(name = "description", type = String.class),
+                @ColumnResult(name = "price", type = BigDecimal.class),
+                @ColumnResult(name = "quantity_in_stock", type = Integer.class),
+                @ColumnResult(name = "category", type = String.class),
+                @ColumnResult(name = "sku", type = String.class),
+                @ColumnResult(name = "active", type = Boolean.class),
+                @ColumnResult(name = "created_at", type = LocalDateTime.class),
+                @ColumnResult(name = "updated_at", type = LocalDateTime.class),
+                @ColumnResult(name = "available", type = Boolean.class),
+                @ColumnResult(name = "version", type = Long.class)
+        }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,8 +40,14 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Product {
 
+    /**
+     * Projection des requêtes natives vers ProductResponseDto (colonnes de ProductRepository.NATIVE_RESPONSE_COLUMNS)
+     */
+    public static final String RESPONSE_MAPPING = "ProductResponseDto";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -57,6 +81,12 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Version du dernier événement publié pour le produit, tenue en base par ProductEventOutbox
+     */
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
+
     /**
      * Vérifie si le produit est disponible en stock
      */
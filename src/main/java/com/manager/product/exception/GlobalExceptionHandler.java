@@ -2,13 +2,17 @@ package com.manager.product.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -123,6 +127,41 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    /**
+     * Gestion de l'indisponibilité de la base (pool de connexions épuisé au-delà du délai d'attente)
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(
+            CannotCreateTransactionException ex, HttpServletRequest request) {
+        log.warn("Base de données indisponible: {}", ex.getMessage());
+        return serviceUnavailable("Le service est momentanément surchargé, veuillez réessayer", request);
+    }
+
+    /**
+     * Gestion de l'indisponibilité de Redis (cache, registre de stock, verrous)
+     */
+    @ExceptionHandler(RedisConnectionFailureException.class)
+    public ResponseEntity<ErrorResponse> handleRedisUnavailableException(
+            RedisConnectionFailureException ex, HttpServletRequest request) {
+        log.warn("Redis indisponible: {}", ex.getMessage());
+        return serviceUnavailable("Le service est momentanément indisponible, veuillez réessayer", request);
+    }
+
+    /**
+     * Gestion des autres ressources indisponibles : le délai d'attente du pool Hikari atteint hors transaction
+     * (cause SQLTransientConnectionException) est traité comme une surcharge de la base
+     */
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<ErrorResponse> handleResourceFailureException(
+            DataAccessResourceFailureException ex, HttpServletRequest request) {
+        if (ex.contains(SQLTransientConnectionException.class)) {
+            log.warn("Base de données indisponible: {}", ex.getMessage());
+            return serviceUnavailable("Le service est momentanément surchargé, veuillez réessayer", request);
+        }
+        log.warn("Ressource indisponible: {}", ex.getMessage());
+        return serviceUnavailable("Le service est momentanément indisponible, veuillez réessayer", request);
+    }
+
     /**
      * Gestion des autres exceptions
      */
@@ -141,4 +180,16 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ErrorResponse> serviceUnavailable(String message, HttpServletRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+}
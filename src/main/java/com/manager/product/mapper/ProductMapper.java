@@ -51,6 +51,7 @@ public class ProductMapper {
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .available(product.isAvailable())
+                .version(product.getVersion())
                 .build();
     }
 
@@ -0,0 +1,175 @@
+package com.manager.product.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.config.KafkaTopics;
+import com.manager.product.config.OutboxProperties;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.entity.OutboxEvent;
+import com.manager.product.repository.OutboxEventRepository;
+import com.manager.product.service.KafkaProductEventEmitter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relais de l'outbox : publie les événements en attente sur Kafka par lots ordonnés,
+ * puis les supprime dans la même transaction une fois acquittés par le broker.
+ * En cas d'échec la transaction est annulée et le lot est republié à la passe suivante (au moins une fois).
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProductEventEmitter kafkaProductEventEmitter;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties.Relay properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter relayedEvents;
+    private final Counter failedBatches;
+    private final Timer batchTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestEventAgeMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaProductEventEmitter kafkaProductEventEmitter,
+                       ObjectMapper objectMapper,
+                       OutboxProperties outboxProperties,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProductEventEmitter = kafkaProductEventEmitter;
+        this.objectMapper = objectMapper;
+        this.properties = outboxProperties.getRelay();
+        this.transactionTemplate = transactionTemplate;
+
+        this.relayedEvents = Counter.builder("outbox.relayed")
+                .description("Événements de l'outbox publiés sur Kafka")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("outbox.relay.failures")
+                .description("Lots de l'outbox dont la publication a échoué")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Durée de publication d'un lot de l'outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Événements en attente dans l'outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", oldestEventAgeMillis, age -> age.get() / 1000.0)
+                .description("Âge de l'événement en attente le plus ancien")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Vide l'outbox lot par lot, puis attend linger-ms avant la passe suivante
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.linger-ms:200}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            } while (relayed >= properties.getBatchSize());
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Échec de la publication d'un lot de l'outbox, nouvelle tentative à la prochaine passe: {}",
+                    e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                sends.add(kafkaProductEventEmitter.sendMessage(toRecord(event)));
+            } catch (RejectedExecutionException e) {
+                // Producteur saturé : seuls les événements déjà envoyés sont confirmés, la suite attend la prochaine passe
+                log.warn("Relais de l'outbox ralenti après {} événements: {}", sends.size(), e.getMessage());
+                break;
+            }
+        }
+        if (sends.isEmpty()) {
+            return 0;
+        }
+        kafkaProductEventEmitter.flush();
+        awaitAcknowledgements(sends.toArray(CompletableFuture[]::new));
+
+        // Les événements envoyés forment un préfixe du lot : l'ordre de publication est conservé
+        List<Long> relayedIds = events.subList(0, sends.size()).stream().map(OutboxEvent::getId).toList();
+        outboxEventRepository.deleteAllByIdInBatch(relayedIds);
+        relayedEvents.increment(relayedIds.size());
+        log.debug("{} événements de l'outbox publiés", relayedIds.size());
+        return relayedIds.size();
+    }
+
+    private void awaitAcknowledgements(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Publication du lot interrompue", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Lot non acquitté par Kafka", e);
+        }
+    }
+
+    private ProducerRecord<String, ProductResponseDto> toRecord(OutboxEvent event) {
+        ProducerRecord<String, ProductResponseDto> record =
+                new ProducerRecord<>(event.getTopic(), event.getEventKey(), readPayload(event));
+        if (event.isHardDelete()) {
+            record.headers().add(KafkaTopics.HARD_DELETE_HEADER, "true".getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    private ProductResponseDto readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), ProductResponseDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Événement illisible dans l'outbox: " + event.getId(), e);
+        }
+    }
+
+    /**
+     * Rafraîchit les métriques de retard de l'outbox hors du chemin de publication
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.metrics-refresh-ms:10000}")
+    public void refreshLagMetrics() {
+        try {
+            pendingEvents.set(outboxEventRepository.count());
+            LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+            oldestEventAgeMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException e) {
+            log.debug("Impossible de mesurer le retard de l'outbox: {}", e.getMessage());
+        }
+    }
+}
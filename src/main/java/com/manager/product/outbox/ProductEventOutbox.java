@@ -0,0 +1,88 @@
+package com.manager.product.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.config.KafkaTopics;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.entity.OutboxEvent;
+import com.manager.product.repository.OutboxEventRepository;
+import com.manager.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enregistre les événements produit dans l'outbox, dans la transaction de l'appelant :
+ * un événement n'est publié que si la modification correspondante est validée.
+ * L'ID de l'événement est tiré de la séquence une fois la ligne du produit verrouillée : pour un même produit,
+ * les IDs suivent l'ordre des commits, que le relais respecte en publiant par ID croissant.
+ * Sous le même verrou, la version du produit est incrémentée et portée par l'événement.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ProductEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return le produit avec sa nouvelle version, telle que publiée
+     */
+    public ProductResponseDto append(KafkaTopics topic, ProductResponseDto product) {
+        return appendAll(topic, List.of(product)).get(0);
+    }
+
+    /**
+     * @return les produits avec leur nouvelle version, dans l'ordre reçu
+     */
+    public List<ProductResponseDto> appendAll(KafkaTopics topic, List<ProductResponseDto> products) {
+        return appendAll(topic, products, false);
+    }
+
+    /**
+     * Suppression définitive : à appeler avant la suppression de la ligne, qui porte la version.
+     * L'événement transporte le dernier état connu et est marqué comme suppression définitive.
+     */
+    public ProductResponseDto appendHardDelete(ProductResponseDto product) {
+        return appendAll(KafkaTopics.PRODUCT_DELETED, List.of(product), true).get(0);
+    }
+
+    private List<ProductResponseDto> appendAll(KafkaTopics topic, List<ProductResponseDto> products,
+                                               boolean hardDelete) {
+        if (products.isEmpty()) {
+            return products;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        for (Object[] row : productRepository.lockAndIncrementVersions(
+                products.stream().map(ProductResponseDto::getId).toList())) {
+            versions.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        List<ProductResponseDto> versioned = products.stream()
+                .map(product -> product.toBuilder().version(versions.get(product.getId())).build())
+                .toList();
+        outboxEventRepository.saveAll(versioned.stream()
+                .map(product -> toOutboxEvent(topic, product, hardDelete))
+                .toList());
+        return versioned;
+    }
+
+    private OutboxEvent toOutboxEvent(KafkaTopics topic, ProductResponseDto product, boolean hardDelete) {
+        try {
+            return OutboxEvent.builder()
+                    .topic(topic.getTopicName())
+                    .eventKey("product-" + product.getId())
+                    .payload(objectMapper.writeValueAsString(product))
+                    .hardDelete(hardDelete)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de sérialiser l'événement du produit " + product.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.manager.product.readmodel;
+
+import com.manager.product.dto.ProductResponseDto;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Projection en mémoire du catalogue, construite à partir des événements produit.
+ * Un seul thread (le consommateur) la modifie ; les lectures sont concurrentes et ne touchent pas la base.
+ * Les requêtes reprennent les règles de ProductRepository (produits actifs, catégorie insensible à la casse).
+ */
+public class ProductProjection {
+
+    public enum Outcome { APPLIED, STALE }
+
+    private final Map<Long, ProductResponseDto> products = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsBySku = new ConcurrentHashMap<>();
+    // Version de suppression des produits supprimés définitivement : écarte les événements antérieurs encore en transit
+    private final Map<Long, Long> deletedVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Applique l'état d'un produit porté par un événement. Un événement plus ancien que l'état connu est ignoré :
+     * les trois topics ne sont pas ordonnés entre eux, et un amorçage depuis la base peut précéder des
+     * événements encore en transit.
+     */
+    public Outcome apply(ProductResponseDto product) {
+        ProductResponseDto current = products.get(product.getId());
+        if (isStale(product, current)) {
+            return Outcome.STALE;
+        }
+        products.put(product.getId(), product);
+        if (current != null && current.getSku() != null && !current.getSku().equals(product.getSku())) {
+            idsBySku.remove(current.getSku(), current.getId());
+        }
+        if (product.getSku() != null) {
+            idsBySku.put(product.getSku(), product.getId());
+        }
+        return Outcome.APPLIED;
+    }
+
+    /**
+     * Retire un produit supprimé définitivement (product porte son dernier état et la version de la suppression)
+     */
+    public Outcome remove(ProductResponseDto product) {
+        ProductResponseDto current = products.get(product.getId());
+        if (isStale(product, current)) {
+            return Outcome.STALE;
+        }
+        products.remove(product.getId());
+        if (current != null && current.getSku() != null) {
+            idsBySku.remove(current.getSku(), current.getId());
+        }
+        if (product.getVersion() != null) {
+            deletedVersions.put(product.getId(), product.getVersion());
+        }
+        return Outcome.APPLIED;
+    }
+
+    /**
+     * Les versions (croissantes par produit, dans l'ordre des commits) font foi ; la date de modification
+     * ne départage que des états antérieurs au versionnement
+     */
+    private boolean isStale(ProductResponseDto product, ProductResponseDto current) {
+        Long deletedVersion = deletedVersions.get(product.getId());
+        if (deletedVersion != null && (product.getVersion() == null || product.getVersion() <= deletedVersion)) {
+            return true;
+        }
+        if (current == null) {
+            return false;
+        }
+        if (current.getVersion() != null) {
+            return product.getVersion() == null || product.getVersion() <= current.getVersion();
+        }
+        return product.getVersion() == null && current.getUpdatedAt() != null && product.getUpdatedAt() != null
+                && product.getUpdatedAt().isBefore(current.getUpdatedAt());
+    }
+
+    public void clear() {
+        products.clear();
+        idsBySku.clear();
+        deletedVersions.clear();
+    }
+
+    public Map<Long, Long> deletedVersions() {
+        return Map.copyOf(deletedVersions);
+    }
+
+    public void restoreDeletedVersions(Map<Long, Long> versions) {
+        deletedVersions.putAll(versions);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public Collection<ProductResponseDto> all() {
+        return products.values();
+    }
+
+    public Optional<ProductResponseDto> findById(Long id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    public Optional<ProductResponseDto> findBySku(String sku) {
+        Long id = idsBySku.get(sku);
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    public List<ProductResponseDto> findActive() {
+        return select(ProductProjection::isActive);
+    }
+
+    public List<ProductResponseDto> findActiveByCategory(String category) {
+        return select(product -> isActive(product) && category.equalsIgnoreCase(product.getCategory()));
+    }
+
+    public List<ProductResponseDto> findActiveByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return select(product -> isActive(product)
+                && product.getPrice().compareTo(minPrice) >= 0
+                && product.getPrice().compareTo(maxPrice) <= 0);
+    }
+
+    public List<ProductResponseDto> findAvailable() {
+        return select(product -> isActive(product) && product.getQuantityInStock() > 0);
+    }
+
+    public List<ProductResponseDto> findLowStock(int threshold) {
+        return select(product -> isActive(product) && product.getQuantityInStock() <= threshold);
+    }
+
+    /**
+     * Résultats triés par ID : même ordre, donc même ETag, d'une instance de lecture à l'autre
+     */
+    private List<ProductResponseDto> select(Predicate<ProductResponseDto> filter) {
+        return products.values().stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(ProductResponseDto::getId))
+                .toList();
+    }
+
+    private static boolean isActive(ProductResponseDto product) {
+        return Boolean.TRUE.equals(product.getActive());
+    }
+}
@@ -0,0 +1,30 @@
+package com.manager.product.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Indicateur "readModel" : une instance de lecture n'est prête qu'une fois la projection à jour des topics
+ */
+@RequiredArgsConstructor
+public class ReadModelHealthIndicator implements HealthIndicator {
+
+    private final ReadModelUpdater updater;
+    private final ProductProjection projection;
+
+    @Override
+    public Health health() {
+        Health.Builder health = switch (updater.getStatus()) {
+            case UP_TO_DATE -> Health.up();
+            case STOPPED -> Health.down();
+            default -> Health.outOfService();
+        };
+        return health
+                .withDetail("status", updater.getStatus())
+                .withDetail("products", projection.size())
+                .withDetail("lastSnapshotAt", String.valueOf(updater.getLastSnapshotAt()))
+                .withDetail("offsets", updater.getPositions())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.manager.product.readmodel;
+
+import com.manager.product.dto.ProductResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * État de la projection à un instant donné, avec pour chaque partition ("topic-partition")
+ * l'offset du prochain événement à appliquer
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadModelSnapshot {
+
+    private LocalDateTime takenAt;
+    private Map<String, Long> offsets;
+    private List<ProductResponseDto> products;
+
+    /**
+     * Version de suppression des produits supprimés définitivement (absente des snapshots antérieurs)
+     */
+    private Map<Long, Long> deletedVersions;
+}
@@ -0,0 +1,57 @@
+package com.manager.product.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.serialization.PayloadEnvelope;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Persiste les snapshots de la projection sur disque, au format Smile versionné des caches et des événements.
+ * L'écriture passe par un fichier temporaire renommé atomiquement : un arrêt brutal laisse le snapshot précédent intact.
+ */
+@Slf4j
+public class ReadModelSnapshotStore {
+
+    private static final String FILE_NAME = "products.snapshot";
+
+    private final Path file;
+    private final ObjectMapper smileMapper = PayloadEnvelope.smileMapper();
+
+    public ReadModelSnapshotStore(String directory) {
+        this.file = Path.of(directory).resolve(FILE_NAME);
+    }
+
+    public Optional<ReadModelSnapshot> load() {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (!PayloadEnvelope.isEnveloped(bytes)) {
+                throw new IllegalArgumentException("en-tête absent");
+            }
+            return Optional.of(smileMapper.readValue(PayloadEnvelope.unwrap(bytes), ReadModelSnapshot.class));
+        } catch (IOException | IllegalArgumentException e) {
+            // Un snapshot illisible n'est pas bloquant : la projection est reconstruite
+            log.warn("Snapshot du modèle de lecture illisible ({}), reconstruction: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(ReadModelSnapshot snapshot) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = file.resolveSibling(FILE_NAME + ".tmp");
+            Files.write(temporary, PayloadEnvelope.wrap(smileMapper.writeValueAsBytes(snapshot)));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'écrire le snapshot " + file, e);
+        }
+    }
+}
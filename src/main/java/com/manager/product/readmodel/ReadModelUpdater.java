@@ -0,0 +1,280 @@
+package com.manager.product.readmodel;
+
+import com.manager.product.config.KafkaTopics;
+import com.manager.product.config.ReadModelProperties;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Alimente la projection depuis les topics produit.
+ * Chaque instance de lecture lit toutes les partitions (assignation manuelle, sans groupe de consommateurs) :
+ * elle détient une copie complète du catalogue, et l'on ajoute des instances sans repartitionner.
+ * Les offsets sont conservés dans le snapshot, avec l'état qu'ils décrivent, et non dans Kafka.
+ */
+@Slf4j
+public class ReadModelUpdater implements SmartLifecycle {
+
+    public enum Status { STARTING, CATCHING_UP, UP_TO_DATE, STOPPED }
+
+    private final ConsumerFactory<String, ProductResponseDto> consumerFactory;
+    private final ProductProjection projection;
+    private final ReadModelSnapshotStore snapshotStore;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadModelProperties properties;
+
+    private final Map<TopicPartition, Long> positions = new ConcurrentHashMap<>();
+    private final Counter applied;
+    private final Counter stale;
+    private final Counter invalid;
+
+    private volatile Status status = Status.STARTING;
+    private volatile boolean running;
+    private volatile Consumer<String, ProductResponseDto> consumer;
+    private volatile LocalDateTime lastSnapshotAt;
+    private Thread thread;
+    private long nextSnapshotNanos;
+    private Map<TopicPartition, Long> catchUpTargets = Map.of();
+
+    public ReadModelUpdater(ConsumerFactory<String, ProductResponseDto> consumerFactory,
+                            ProductProjection projection,
+                            ReadModelSnapshotStore snapshotStore,
+                            ProductRepository productRepository,
+                            TransactionTemplate readOnlyTransaction,
+                            ReadModelProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.projection = projection;
+        this.snapshotStore = snapshotStore;
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.properties = properties;
+        this.applied = eventCounter(meterRegistry, "applied");
+        this.stale = eventCounter(meterRegistry, "stale");
+        this.invalid = eventCounter(meterRegistry, "invalid");
+        Gauge.builder("read.model.products", projection, ProductProjection::size)
+                .description("Nombre de produits dans le modèle de lecture")
+                .register(meterRegistry);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("read.model.events")
+                .description("Événements produit reçus par le modèle de lecture")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "read-model-updater");
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Consumer<String, ProductResponseDto> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        try {
+            thread.join(properties.getPollTimeout().multipliedBy(10).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getLastSnapshotAt() {
+        return lastSnapshotAt;
+    }
+
+    /**
+     * Prochain offset à appliquer par partition ("topic-partition")
+     */
+    public Map<String, Long> getPositions() {
+        Map<String, Long> offsets = new HashMap<>();
+        positions.forEach((partition, offset) -> offsets.put(partition.toString(), offset));
+        return offsets;
+    }
+
+    private void run() {
+        try (Consumer<String, ProductResponseDto> kafkaConsumer = consumerFactory.createConsumer()) {
+            consumer = kafkaConsumer;
+            List<TopicPartition> partitions = partitions(kafkaConsumer);
+            kafkaConsumer.assign(partitions);
+            restore(kafkaConsumer, partitions);
+            status = Status.CATCHING_UP;
+            nextSnapshotNanos = System.nanoTime() + properties.getSnapshotInterval().toNanos();
+
+            while (running) {
+                poll(kafkaConsumer);
+                if (status == Status.CATCHING_UP && caughtUp()) {
+                    status = Status.UP_TO_DATE;
+                    log.info("Modèle de lecture à jour: {} produits", projection.size());
+                }
+                if (System.nanoTime() - nextSnapshotNanos >= 0) {
+                    snapshot();
+                }
+            }
+        } catch (WakeupException e) {
+            // Arrêt demandé pendant un poll
+        } catch (RuntimeException e) {
+            log.error("Arrêt du modèle de lecture sur erreur", e);
+        } finally {
+            if (status != Status.STARTING) {
+                snapshot();
+            }
+            status = Status.STOPPED;
+            consumer = null;
+            running = false;
+        }
+    }
+
+    private static List<TopicPartition> partitions(Consumer<String, ProductResponseDto> kafkaConsumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (KafkaTopics topic : KafkaTopics.values()) {
+            for (PartitionInfo partition : kafkaConsumer.partitionsFor(topic.getTopicName())) {
+                partitions.add(new TopicPartition(partition.topic(), partition.partition()));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Reprend le dernier snapshot et ses offsets. Si un offset n'est plus disponible (rétention dépassée)
+     * ou s'il n'y a pas de snapshot, la projection est reconstruite.
+     */
+    private void restore(Consumer<String, ProductResponseDto> kafkaConsumer, List<TopicPartition> partitions) {
+        Map<TopicPartition, Long> beginnings = kafkaConsumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> ends = kafkaConsumer.endOffsets(partitions);
+        catchUpTargets = ends;
+
+        Optional<ReadModelSnapshot> snapshot = snapshotStore.load();
+        Map<String, Long> savedOffsets = snapshot.map(ReadModelSnapshot::getOffsets).orElse(Map.of());
+        boolean usable = snapshot.isPresent() && partitions.stream().allMatch(partition -> {
+            Long saved = savedOffsets.get(partition.toString());
+            return saved != null && saved >= beginnings.get(partition);
+        });
+
+        if (usable) {
+            snapshot.get().getProducts().forEach(projection::apply);
+            if (snapshot.get().getDeletedVersions() != null) {
+                projection.restoreDeletedVersions(snapshot.get().getDeletedVersions());
+            }
+            partitions.forEach(partition -> kafkaConsumer.seek(partition, savedOffsets.get(partition.toString())));
+            lastSnapshotAt = snapshot.get().getTakenAt();
+            log.info("Modèle de lecture restauré depuis le snapshot du {}: {} produits",
+                    lastSnapshotAt, projection.size());
+        } else if (properties.isBootstrapFromDatabase()) {
+            // Offsets de fin relevés avant la lecture de la base : les événements ultérieurs seront rejoués,
+            // les plus anciens que l'état lu étant ignorés par la projection
+            bootstrapFromDatabase();
+            partitions.forEach(partition -> kafkaConsumer.seek(partition, ends.get(partition)));
+            log.info("Modèle de lecture initialisé depuis la base: {} produits", projection.size());
+        } else {
+            kafkaConsumer.seekToBeginning(partitions);
+            log.warn("Aucun snapshot exploitable : rejeu des topics depuis le début, "
+                    + "les produits antérieurs à la rétention seront absents");
+        }
+        partitions.forEach(partition -> positions.put(partition, kafkaConsumer.position(partition)));
+    }
+
+    /**
+     * Charge tous les produits, inactifs compris, comme le fait le rejeu des événements :
+     * les lectures par ID les renvoient et les listes filtrent déjà sur le statut actif
+     */
+    private void bootstrapFromDatabase() {
+        projection.clear();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductResponseDto> products = productRepository.streamAllProducts()) {
+                products.forEach(projection::apply);
+            }
+        });
+    }
+
+    private void poll(Consumer<String, ProductResponseDto> kafkaConsumer) {
+        ConsumerRecords<String, ProductResponseDto> records;
+        try {
+            records = kafkaConsumer.poll(properties.getPollTimeout());
+        } catch (RecordDeserializationException e) {
+            // Événement illisible : il est journalisé puis ignoré pour ne pas bloquer la partition
+            invalid.increment();
+            log.error("Événement illisible ignoré ({} offset {}): {}",
+                    e.topicPartition(), e.offset(), e.getMessage());
+            kafkaConsumer.seek(e.topicPartition(), e.offset() + 1);
+            return;
+        }
+        for (ConsumerRecord<String, ProductResponseDto> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            if (apply(record) == ProductProjection.Outcome.APPLIED) {
+                applied.increment();
+            } else {
+                stale.increment();
+            }
+        }
+        for (TopicPartition partition : records.partitions()) {
+            positions.put(partition, kafkaConsumer.position(partition));
+        }
+    }
+
+    private ProductProjection.Outcome apply(ConsumerRecord<String, ProductResponseDto> record) {
+        boolean hardDelete = KafkaTopics.PRODUCT_DELETED.getTopicName().equals(record.topic())
+                && record.headers().lastHeader(KafkaTopics.HARD_DELETE_HEADER) != null;
+        return hardDelete ? projection.remove(record.value()) : projection.apply(record.value());
+    }
+
+    private boolean caughtUp() {
+        return catchUpTargets.entrySet().stream()
+                .allMatch(target -> positions.getOrDefault(target.getKey(), 0L) >= target.getValue());
+    }
+
+    /**
+     * Pris par le thread consommateur, entre deux polls : l'état et les offsets sont cohérents
+     */
+    private void snapshot() {
+        nextSnapshotNanos = System.nanoTime() + properties.getSnapshotInterval().toNanos();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            snapshotStore.save(new ReadModelSnapshot(now, getPositions(), List.copyOf(projection.all()),
+                    projection.deletedVersions()));
+            lastSnapshotAt = now;
+        } catch (RuntimeException e) {
+            log.warn("Échec du snapshot du modèle de lecture: {}", e.getMessage());
+        }
+    }
+}
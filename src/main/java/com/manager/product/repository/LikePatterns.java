@@ -0,0 +1,31 @@
+package com.manager.product.repository;
+
+/**
+ * Échappement des caractères spéciaux de LIKE (%, _ et \) dans un texte saisi par l'utilisateur.
+ * Les requêtes qui reçoivent ce texte déclarent ESCAPE '\'.
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    /**
+     * Texte à rechercher littéralement dans un motif LIKE
+     */
+    public static String escape(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.manager.product.repository;
+
+import com.manager.product.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour la table outbox des événements produit
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Verrouille les plus anciens événements en attente, par ID croissant. Pour une même clé, les IDs suivent
+     * l'ordre des commits (ProductEventOutbox) : un lot en est toujours un préfixe.
+     * Sans SKIP LOCKED : un second relais attend le premier, ce qui préserve l'ordre par clé.
+     */
+    @Query(value = "SELECT * FROM product_outbox ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    /**
+     * Date de création de l'événement en attente le plus ancien (null si l'outbox est vide)
+     */
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o")
+    LocalDateTime findOldestCreatedAt();
+}
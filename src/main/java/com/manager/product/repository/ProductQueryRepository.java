@@ -0,0 +1,33 @@
+package com.manager.product.repository;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Requêtes dynamiques (Criteria) de la recherche multicritère, intégrées à ProductRepository
+ */
+public interface ProductQueryRepository {
+
+    /**
+     * Nombre de produits par couple (catégorie, tranche de prix) : une seule agrégation fournit
+     * le total et les deux facettes
+     */
+    record FacetCount(String category, int priceBucket, long count) {
+    }
+
+    /**
+     * Page de produits projetés en DTO, sans requête de comptage (le total provient des facettes)
+     */
+    List<ProductResponseDto> findResponses(Specification<Product> specification, Pageable pageable);
+
+    /**
+     * Compte les produits par catégorie et par tranche de prix. La tranche i regroupe les prix
+     * de priceBounds[i - 1] (inclus) à priceBounds[i] (exclu).
+     */
+    List<FacetCount> countFacets(Specification<Product> specification, List<BigDecimal> priceBounds);
+}
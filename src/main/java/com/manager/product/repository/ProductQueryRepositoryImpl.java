@@ -0,0 +1,75 @@
+package com.manager.product.repository;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Implémentation Criteria de {@link ProductQueryRepository}
+ */
+class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductResponseDto> findResponses(Specification<Product> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponseDto> query = cb.createQuery(ProductResponseDto.class);
+        Root<Product> root = query.from(Product.class);
+
+        // Même projection que ProductRepository.RESPONSE_PROJECTION
+        Expression<Boolean> available = cb.<Boolean>selectCase()
+                .when(cb.and(cb.isTrue(root.get("active")), cb.greaterThan(root.get("quantityInStock"), 0)), true)
+                .otherwise(false);
+        query.select(cb.construct(ProductResponseDto.class,
+                root.get("id"), root.get("name"), root.get("description"), root.get("price"),
+                root.get("quantityInStock"), root.get("category"), root.get("sku"), root.get("active"),
+                root.get("createdAt"), root.get("updatedAt"), available, root.get("version")));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<FacetCount> countFacets(Specification<Product> specification, List<BigDecimal> priceBounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Expression<Integer> bucket = cb.literal(0);
+        if (!priceBounds.isEmpty()) {
+            CriteriaBuilder.Case<Integer> bucketCase = cb.selectCase();
+            for (int i = 0; i < priceBounds.size(); i++) {
+                bucketCase = bucketCase.when(cb.lessThan(root.get("price"), priceBounds.get(i)), i);
+            }
+            bucket = bucketCase.otherwise(priceBounds.size());
+        }
+        Expression<String> category = root.get("category");
+
+        query.multiselect(category, bucket, cb.count(root));
+        query.where(specification.toPredicate(root, query, cb));
+        query.groupBy(category, bucket);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> new FacetCount(tuple.get(0, String.class),
+                        tuple.get(1, Integer.class), tuple.get(2, Long.class)))
+                .toList();
+    }
+}
@@ -1,20 +1,47 @@
 package com.manager.product.repository;
 
+import com.manager.product.dto.ProductResponseDto;
 import com.manager.product.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour la gestion des produits
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductQueryRepository {
+
+    /**
+     * Projection JPQL directe vers ProductResponseDto, pour les lectures : aucune entité managée,
+     * donc ni hydratation, ni snapshot, ni dirty checking au flush.
+     * La disponibilité est calculée en SQL avec la même règle que Product.isAvailable().
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.manager.product.dto.ProductResponseDto(" +
+            "p.id, p.name, p.description, p.price, p.quantityInStock, p.category, p.sku, p.active, " +
+            "p.createdAt, p.updatedAt, " +
+            "CASE WHEN p.active = true AND p.quantityInStock > 0 THEN true ELSE false END, p.version) ";
+
+    /**
+     * Colonnes des requêtes natives projetées en ProductResponseDto (mapping Product.RESPONSE_MAPPING)
+     */
+    String NATIVE_RESPONSE_COLUMNS = "id, name, description, price, quantity_in_stock, category, sku, active, " +
+            "created_at, updated_at, active AND quantity_in_stock > 0 AS available, version";
 
     /**
      * Trouve tous les produits actifs
@@ -46,6 +73,26 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     List<Product> findByNameContainingIgnoreCaseAndActiveTrue(String name);
 
+    /**
+     * Recherche classée par pertinence sur le nom, la description, la catégorie et le SKU des produits actifs.
+     * Combine la recherche plein texte par préfixes (search_vector) et la similarité trigramme sur le nom
+     * (tolérance aux fautes de frappe), toutes deux servies par des index GIN.
+     * skuPrefix est le texte recherché échappé par LikePatterns.escape.
+     */
+    @Query(value = "SELECT p.* FROM products p " +
+                   "WHERE p.active = true AND (p.search_vector @@ to_tsquery('simple', :prefixQuery) " +
+                   "OR :query <% p.name OR p.sku ILIKE :skuPrefix || '%' ESCAPE '\\') " +
+                   "ORDER BY ts_rank_cd(p.search_vector, to_tsquery('simple', :prefixQuery)) " +
+                   "+ word_similarity(:query, p.name) DESC, p.id",
+           countQuery = "SELECT count(*) FROM products p " +
+                        "WHERE p.active = true AND (p.search_vector @@ to_tsquery('simple', :prefixQuery) " +
+                        "OR :query <% p.name OR p.sku ILIKE :skuPrefix || '%' ESCAPE '\\')",
+           nativeQuery = true)
+    Page<Product> searchRanked(@Param("query") String query,
+                               @Param("prefixQuery") String prefixQuery,
+                               @Param("skuPrefix") String skuPrefix,
+                               Pageable pageable);
+
     /**
      * Trouve les produits dans une gamme de prix
      */
@@ -68,6 +115,111 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.quantityInStock > 0")
     List<Product> findAvailableProducts();
 
+    /**
+     * Retourne une page de produits projetés en DTO
+     */
+    @Query(value = RESPONSE_PROJECTION + "FROM Product p",
+           countQuery = "SELECT count(p) FROM Product p")
+    Page<ProductResponseDto> findAllResponses(Pageable pageable);
+
+    /**
+     * Retourne les produits dont l'ID est supérieur au curseur, triés par ID (pagination keyset)
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.id > :id ORDER BY p.id")
+    List<ProductResponseDto> findResponsesAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Retourne un produit projeté en DTO par son ID
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.id = :id")
+    Optional<ProductResponseDto> findResponseById(@Param("id") Long id);
+
+    /**
+     * Retourne les produits projetés en DTO dont l'ID figure dans la liste
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.id IN :ids")
+    List<ProductResponseDto> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retourne un produit projeté en DTO par son SKU
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.sku = :sku")
+    Optional<ProductResponseDto> findResponseBySku(@Param("sku") String sku);
+
+    /**
+     * Retourne les produits actifs projetés en DTO
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.active = true")
+    List<ProductResponseDto> findActiveResponses();
+
+    /**
+     * Retourne les produits actifs d'une catégorie projetés en DTO
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE lower(p.category) = lower(:category) AND p.active = true")
+    List<ProductResponseDto> findActiveResponsesByCategory(@Param("category") String category);
+
+    /**
+     * Retourne les produits actifs dont le nom contient le texte recherché (insensible à la casse).
+     * Le texte doit être échappé par LikePatterns.escape.
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p " +
+           "WHERE lower(p.name) LIKE lower(concat('%', :name, '%')) ESCAPE '\\' AND p.active = true")
+    List<ProductResponseDto> findActiveResponsesByNameContaining(@Param("name") String name);
+
+    /**
+     * Retourne les produits actifs dans une gamme de prix projetés en DTO
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.active = true")
+    List<ProductResponseDto> findActiveResponsesByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+                                                               @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * Retourne les produits disponibles (actifs et en stock) projetés en DTO
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.active = true AND p.quantityInStock > 0")
+    List<ProductResponseDto> findAvailableResponses();
+
+    /**
+     * Retourne les produits avec stock faible projetés en DTO
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.quantityInStock <= :threshold AND p.active = true")
+    List<ProductResponseDto> findLowStockResponses(@Param("threshold") Integer threshold);
+
+    /**
+     * Parcourt tous les produits, actifs ou non, en flux, lus par lots de la taille du fetch size JDBC
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "FROM Product p")
+    Stream<ProductResponseDto> streamAllProducts();
+
+    /**
+     * Parcourt les produits actifs en flux, lus par lots de la taille du fetch size JDBC
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.active = true")
+    Stream<ProductResponseDto> streamActiveProducts();
+
+    /**
+     * Parcourt les produits actifs d'une catégorie en flux
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE lower(p.category) = lower(:category) AND p.active = true")
+    Stream<ProductResponseDto> streamByCategory(@Param("category") String category);
+
+    /**
+     * Parcourt les produits disponibles (actifs et en stock) en flux
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.active = true AND p.quantityInStock > 0")
+    Stream<ProductResponseDto> streamAvailableProducts();
+
+    /**
+     * Parcourt les produits avec stock faible en flux
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "FROM Product p WHERE p.quantityInStock <= :threshold AND p.active = true")
+    Stream<ProductResponseDto> streamProductsWithLowStock(@Param("threshold") Integer threshold);
+
     /**
      * Compte le nombre de produits par catégorie
      */
@@ -83,4 +235,45 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * Vérifie si un SKU existe pour un autre produit (lors de la mise à jour)
      */
     boolean existsBySkuAndIdNot(String sku, Long id);
-}
\ No newline at end of file
+
+    /**
+     * Retourne, parmi les SKU fournis, ceux qui existent déjà (vérification d'un lot en une requête)
+     */
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * Trouve les produits portant l'un des SKU fournis
+     */
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    /**
+     * Verrouille les lignes des produits (dans l'ordre des IDs, sans interblocage entre lots) jusqu'à la fin
+     * de la transaction et incrémente leur version d'événement. Retourne les couples [id, nouvelle version].
+     * Requête native : les écritures en attente sont envoyées en base avant le verrouillage.
+     */
+    @Query(value = "UPDATE products p SET version = p.version + 1 " +
+                   "FROM (SELECT id FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE) locked " +
+                   "WHERE p.id = locked.id RETURNING p.id, p.version",
+           nativeQuery = true)
+    List<Object[]> lockAndIncrementVersions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Décrémente le stock en une seule instruction, uniquement si la quantité disponible suffit,
+     * et retourne le produit mis à jour (vide si le produit n'existe pas ou si le stock est insuffisant)
+     */
+    @NativeQuery(value = "UPDATE products SET quantity_in_stock = quantity_in_stock - :quantity, " +
+                         "updated_at = LOCALTIMESTAMP WHERE id = :id AND quantity_in_stock >= :quantity " +
+                         "RETURNING " + NATIVE_RESPONSE_COLUMNS,
+                 sqlResultSetMapping = Product.RESPONSE_MAPPING)
+    Optional<ProductResponseDto> decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Incrémente le stock en une seule instruction et retourne le produit mis à jour (vide s'il n'existe pas)
+     */
+    @NativeQuery(value = "UPDATE products SET quantity_in_stock = quantity_in_stock + :quantity, " +
+                         "updated_at = LOCALTIMESTAMP WHERE id = :id " +
+                         "RETURNING " + NATIVE_RESPONSE_COLUMNS,
+                 sqlResultSetMapping = Product.RESPONSE_MAPPING)
+    Optional<ProductResponseDto> increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,54 @@
+package com.manager.product.repository;
+
+import com.manager.product.dto.ProductQueryDto;
+import com.manager.product.entity.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Critères de la recherche multicritère. Chaque prédicat reprend l'expression des index partiels (WHERE active) :
+ * lower(category), price, quantity_in_stock et lower(name) en trigrammes.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductQueryDto criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("active")));
+
+            if (StringUtils.hasText(criteria.getName())) {
+                predicates.add(cb.like(cb.lower(root.get("name")),
+                        "%" + LikePatterns.escape(criteria.getName().toLowerCase(Locale.ROOT)) + "%",
+                        LikePatterns.ESCAPE));
+            }
+            if (criteria.getCategories() != null && !criteria.getCategories().isEmpty()) {
+                predicates.add(cb.lower(root.get("category")).in(criteria.getCategories().stream()
+                        .map(category -> category.toLowerCase(Locale.ROOT))
+                        .toList()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getAvailable() != null) {
+                predicates.add(criteria.getAvailable()
+                        ? cb.greaterThan(root.get("quantityInStock"), 0)
+                        : cb.lessThanOrEqualTo(root.get("quantityInStock"), 0));
+            }
+            if (criteria.getMaxStock() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("quantityInStock"), criteria.getMaxStock()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
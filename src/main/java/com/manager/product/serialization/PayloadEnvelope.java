@@ -0,0 +1,72 @@
+package com.manager.product.serialization;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.util.Arrays;
+
+/**
+ * Enveloppe des charges utiles binaires : un octet magique, un octet de version du schéma, puis le document Smile.
+ * L'octet magique ne peut pas commencer un document JSON, ce qui permet de relire les anciennes valeurs JSON
+ * sans marqueur et de changer de format sans migration des données.
+ */
+public final class PayloadEnvelope {
+
+    static final byte MAGIC = (byte) 0xB1;
+
+    /**
+     * Version du schéma des DTO encodés. À incrémenter lors d'un changement incompatible,
+     * en conservant la lecture des versions précédentes.
+     */
+    public static final byte SCHEMA_VERSION = 1;
+
+    public static final int HEADER_LENGTH = 2;
+
+    private PayloadEnvelope() {
+    }
+
+    /**
+     * ObjectMapper Smile avec les modules Jackson présents (dates java.time, Optional...).
+     * Les propriétés inconnues sont ignorées pour qu'un ajout de champ ne casse pas les lecteurs existants.
+     * Les noms de propriétés et les chaînes courtes répétées sont partagés dans chaque document.
+     */
+    public static ObjectMapper smileMapper() {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return SmileMapper.builder(smileFactory)
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    public static boolean isEnveloped(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC;
+    }
+
+    public static byte[] wrap(byte[] payload) {
+        byte[] enveloped = new byte[payload.length + HEADER_LENGTH];
+        enveloped[0] = MAGIC;
+        enveloped[1] = SCHEMA_VERSION;
+        System.arraycopy(payload, 0, enveloped, HEADER_LENGTH, payload.length);
+        return enveloped;
+    }
+
+    /**
+     * Vérifie que la version du schéma est lisible par cette instance
+     */
+    public static void checkVersion(byte[] enveloped) {
+        byte version = enveloped[1];
+        if (version < 1 || version > SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Version de schéma non supportée: " + version);
+        }
+    }
+
+    public static byte[] unwrap(byte[] enveloped) {
+        checkVersion(enveloped);
+        return Arrays.copyOfRange(enveloped, HEADER_LENGTH, enveloped.length);
+    }
+}
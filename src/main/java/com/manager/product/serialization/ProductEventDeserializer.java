@@ -0,0 +1,36 @@
+package com.manager.product.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.dto.ProductResponseDto;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+
+/**
+ * Désérialiseur Kafka des événements produit, pour les consommateurs : accepte les enregistrements Smile
+ * versionnés comme les enregistrements JSON publiés avant le changement de format
+ */
+public class ProductEventDeserializer implements Deserializer<ProductResponseDto> {
+
+    private final ObjectMapper jsonMapper = JacksonUtils.enhancedObjectMapper();
+    private final ObjectMapper smileMapper = PayloadEnvelope.smileMapper();
+
+    @Override
+    public ProductResponseDto deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            if (PayloadEnvelope.isEnveloped(data)) {
+                PayloadEnvelope.checkVersion(data);
+                return smileMapper.readValue(data, PayloadEnvelope.HEADER_LENGTH,
+                        data.length - PayloadEnvelope.HEADER_LENGTH, ProductResponseDto.class);
+            }
+            return jsonMapper.readValue(data, ProductResponseDto.class);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Événement produit illisible sur le topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.manager.product.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.dto.ProductResponseDto;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Sérialiseur Kafka des événements produit. Le format est lu dans la propriété du producteur
+ * {@value #FORMAT_CONFIG} (json par défaut, identique à celui de JsonSerializer, ou smile).
+ * Chaque enregistrement porte un en-tête {@value #CONTENT_TYPE_HEADER} indiquant le format et la version du schéma.
+ */
+public class ProductEventSerializer implements Serializer<ProductResponseDto> {
+
+    public static final String FORMAT_CONFIG = "product.serialization.format";
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile;version=" + PayloadEnvelope.SCHEMA_VERSION;
+
+    private static final byte[] SMILE_CONTENT_TYPE_BYTES = SMILE_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final JsonSerializer<ProductResponseDto> jsonSerializer = new JsonSerializer<>();
+    private final ObjectMapper smileMapper = PayloadEnvelope.smileMapper();
+    private SerializationFormat format = SerializationFormat.JSON;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        format = SerializationFormat.from(configs.get(FORMAT_CONFIG));
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, ProductResponseDto data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, ProductResponseDto data) {
+        if (data == null) {
+            return null;
+        }
+        if (format == SerializationFormat.JSON) {
+            return headers != null ? jsonSerializer.serialize(topic, headers, data) : jsonSerializer.serialize(topic, data);
+        }
+        try {
+            byte[] payload = PayloadEnvelope.wrap(smileMapper.writeValueAsBytes(data));
+            if (headers != null) {
+                headers.remove(CONTENT_TYPE_HEADER);
+                headers.add(CONTENT_TYPE_HEADER, SMILE_CONTENT_TYPE_BYTES);
+            }
+            return payload;
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Impossible de sérialiser l'événement produit " + data.getId(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
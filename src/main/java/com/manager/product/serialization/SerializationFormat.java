@@ -0,0 +1,29 @@
+package com.manager.product.serialization;
+
+import java.util.Locale;
+
+/**
+ * Format d'écriture des valeurs en cache et des événements Kafka ; la lecture accepte toujours les deux
+ */
+public enum SerializationFormat {
+
+    /**
+     * JSON textuel (format historique)
+     */
+    JSON,
+
+    /**
+     * Smile (JSON binaire) dans une enveloppe versionnée, voir {@link PayloadEnvelope}
+     */
+    SMILE;
+
+    public static SerializationFormat from(Object value) {
+        if (value == null) {
+            return JSON;
+        }
+        if (value instanceof SerializationFormat format) {
+            return format;
+        }
+        return valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,56 @@
+package com.manager.product.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Sérialiseur des valeurs du cache Redis : écrit dans le format configuré et relit aussi bien
+ * les entrées Smile versionnées que les entrées JSON écrites avant le changement de format.
+ * Les deux formats gardent le typage par défaut de Jackson (propriété @class).
+ */
+public class VersionedRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final RedisSerializer<Object> smileSerializer;
+    private final SerializationFormat writeFormat;
+
+    /**
+     * @param objectMapper ObjectMapper dédié au cache, utilisé pour le format JSON
+     */
+    public VersionedRedisSerializer(ObjectMapper objectMapper, SerializationFormat writeFormat) {
+        this.jsonSerializer = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(objectMapper)
+                .defaultTyping(true)
+                .build();
+        this.smileSerializer = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(PayloadEnvelope.smileMapper())
+                .defaultTyping(true)
+                .build();
+        this.writeFormat = writeFormat;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (writeFormat == SerializationFormat.JSON) {
+            return jsonSerializer.serialize(value);
+        }
+        return PayloadEnvelope.wrap(smileSerializer.serialize(value));
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (PayloadEnvelope.isEnveloped(bytes)) {
+            try {
+                return smileSerializer.deserialize(PayloadEnvelope.unwrap(bytes));
+            } catch (IllegalArgumentException e) {
+                throw new SerializationException("Valeur de cache illisible: " + e.getMessage(), e);
+            }
+        }
+        return jsonSerializer.deserialize(bytes);
+    }
+}
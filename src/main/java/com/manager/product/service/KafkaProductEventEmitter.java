@@ -1,20 +1,115 @@
 package com.manager.product.service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import com.manager.product.config.EventEmitterProperties;
 import com.manager.product.dto.ProductResponseDto;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Envoi asynchrone des événements produit. Le nombre d'envois non acquittés est borné : quand le broker
+ * ralentit, un envoi attend au plus acquire-timeout une place libre puis est refusé
+ * (RejectedExecutionException) au lieu de remplir le buffer du producteur. L'appelant (le relais de l'outbox)
+ * garde alors les événements restants pour la passe suivante.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class KafkaProductEventEmitter {
     
     private final KafkaTemplate<String, ProductResponseDto> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final EventEmitterProperties properties;
+    private final Semaphore inFlight;
+
+    public KafkaProductEventEmitter(KafkaTemplate<String, ProductResponseDto> kafkaTemplate,
+                                    MeterRegistry meterRegistry,
+                                    EventEmitterProperties properties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+
+        Gauge.builder("product.events.in-flight", inFlight,
+                        semaphore -> (double) properties.getMaxInFlight() - semaphore.availablePermits())
+                .description("Événements envoyés et non encore acquittés par le broker")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, ProductResponseDto>> sendMessage(String topic, String key, ProductResponseDto message){
+        return sendMessage(new ProducerRecord<>(topic, key, message));
+    }
+
+    public CompletableFuture<SendResult<String, ProductResponseDto>> sendMessage(ProducerRecord<String, ProductResponseDto> record) {
+        String topic = record.topic();
+        String key = record.key();
+        acquire(topic);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<SendResult<String, ProductResponseDto>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        return future.whenComplete((result, ex) -> {
+            inFlight.release();
+            sample.stop(Timer.builder("product.events.send")
+                    .description("Délai entre l'envoi d'un événement produit et l'acquittement du broker")
+                    .tag("topic", topic)
+                    .tag("outcome", ex == null ? "success" : "failure")
+                    .tag("exception", ex == null ? "none" : rootCause(ex).getClass().getSimpleName())
+                    .register(meterRegistry));
+            if (ex != null) {
+                log.warn("Échec de l'envoi de l'événement {} sur le topic {}: {}", key, topic, rootCause(ex).getMessage());
+            }
+        });
+    }
+
+    private void acquire(String topic) {
+        boolean acquired;
+        try {
+            acquired = inFlight.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            Counter.builder("product.events.rejected")
+                    .description("Envois refusés faute de place parmi les envois non acquittés")
+                    .tag("topic", topic)
+                    .register(meterRegistry)
+                    .increment();
+            throw new RejectedExecutionException(
+                    "Producteur Kafka saturé: " + properties.getMaxInFlight() + " envois en attente d'acquittement");
+        }
+    }
+
+    /**
+     * Force l'envoi immédiat des batches en attente dans le producteur
+     */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
 
-    public void sendMessage(String topic, String key, ProductResponseDto message){
-        kafkaTemplate.send(topic, key, message);
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
     }
 
 }
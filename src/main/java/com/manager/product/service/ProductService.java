@@ -1,28 +1,69 @@
 package com.manager.product.service;
 
+import com.manager.product.alert.LowStockAlertPublisher;
+import com.manager.product.cache.ProductPageCache;
+import com.manager.product.cache.TwoLevelCache;
 import com.manager.product.config.KafkaTopics;
+import com.manager.product.dto.BatchUpdateProductsDto;
 import com.manager.product.dto.CreateProductDto;
+import com.manager.product.dto.CursorPageDto;
+import com.manager.product.dto.ProductLookupItemDto;
+import com.manager.product.dto.ProductQueryDto;
+import com.manager.product.dto.ProductQueryResultDto;
 import com.manager.product.dto.ProductResponseDto;
 import com.manager.product.dto.UpdateProductDto;
 import com.manager.product.entity.Product;
 import com.manager.product.exception.ProductNotFoundException;
 import com.manager.product.exception.SkuAlreadyExistsException;
 import com.manager.product.mapper.ProductMapper;
+import com.manager.product.outbox.ProductEventOutbox;
+import com.manager.product.repository.LikePatterns;
+import com.manager.product.repository.ProductQueryRepository;
 import com.manager.product.repository.ProductRepository;
+import com.manager.product.repository.ProductSpecifications;
+import com.manager.product.stock.RedisStockLedger;
+import com.manager.product.stock.StockLedgerPolicy;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service pour la gestion des produits
@@ -31,24 +72,75 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Timed(value = "product.service", description = "Durée des opérations du service produit")
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
-    private final KafkaProductEventEmitter kafkaProductEventEmitter;
+    private final ProductEventOutbox productEventOutbox;
+    private final CacheManager cacheManager;
+    private final ProductPageCache productPageCache;
+    private final RedisStockLedger stockLedger;
+    private final StockLedgerPolicy stockLedgerPolicy;
+    private final LowStockAlertPublisher lowStockAlertPublisher;
     private final String NOT_FOUND_MESSAGE = "Produit non trouvé avec l'ID: ";
+    private static final String CURSOR_PREFIX = "id:";
+    private static final String SKU_CACHE = "product-sku";
+    private static final List<BigDecimal> DEFAULT_PRICE_BUCKETS = List.of(
+            BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(100), BigDecimal.valueOf(500));
+    private static final int MAX_PRICE_BUCKETS = 20;
+    private static final Set<String> QUERY_SORT_PROPERTIES = Set.of(
+            "id", "name", "price", "quantityInStock", "category", "createdAt", "updatedAt");
 
     /**
-     * Récupère tous les produits avec pagination
+     * Récupère tous les produits avec pagination (pages en cache par génération du catalogue)
      */
-    @Cacheable(value = "products-page", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
     public Page<ProductResponseDto> getAllProducts(Pageable pageable) {
         log.debug("Récupération de tous les produits avec pagination: {}", pageable);
-        Page<Product> productPage = productRepository.findAll(pageable);
-        List<ProductResponseDto> productDtos = productPage.getContent().stream()
-                .map(productMapper::toResponseDto)
-                .toList();
-        return new PageImpl<>(productDtos, pageable, productPage.getTotalElements());
+        return productPageCache.get(pageable, () -> productRepository.findAllResponses(pageable));
+    }
+
+    /**
+     * Récupère une page de produits après le curseur donné (pagination keyset sur l'ID).
+     * Évite l'OFFSET et le COUNT(*) de la pagination classique : le coût ne dépend pas de la profondeur.
+     */
+    public CursorPageDto<ProductResponseDto> getProductsAfter(String cursor, int size) {
+        log.debug("Récupération des produits après le curseur: {}, taille: {}", cursor, size);
+        long afterId = decodeCursor(cursor);
+
+        // Une ligne de plus que demandé permet de savoir s'il existe une page suivante
+        List<ProductResponseDto> products = productRepository.findResponsesAfter(afterId, Limit.of(size + 1));
+        boolean hasNext = products.size() > size;
+        List<ProductResponseDto> productDtos = hasNext ? products.subList(0, size) : products;
+
+        String nextCursor = hasNext ? encodeCursor(productDtos.get(productDtos.size() - 1).getId()) : null;
+        return CursorPageDto.<ProductResponseDto>builder()
+                .content(productDtos)
+                .size(productDtos.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Curseur de pagination invalide: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException hérite d'IllegalArgumentException
+            throw new IllegalArgumentException("Curseur de pagination invalide: " + cursor, e);
+        }
     }
 
     /**
@@ -56,37 +148,148 @@ public class ProductService {
      */
     public List<ProductResponseDto> getActiveProducts() {
         log.debug("Récupération de tous les produits actifs");
-        List<Product> products = productRepository.findByActiveTrue();
-        return products.stream()
-                .map(productMapper::toResponseDto)
-                .toList();
+        return productRepository.findActiveResponses();
     }
 
     /**
-     * Récupère un produit par son ID
+     * Récupère un produit par son ID. Sur un défaut de cache, les appels concurrents pour un même ID
+     * partagent un seul chargement (sync)
      */
-    @Cacheable(value = "product", key = "#id")
+    @Cacheable(value = "product", key = "#id", sync = true)
     public ProductResponseDto getProductById(Long id) {
         log.debug("Récupération du produit avec l'ID: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(NOT_FOUND_MESSAGE + id));
-        return productMapper.toResponseDto(product);
+        return findProductById(id);
     }
 
     /**
-     * Récupère un produit par son SKU
+     * Récupère un produit par son SKU. Le cache "product-sku" ne conserve que l'ID : le produit lui-même est lu
+     * dans le cache "product", déjà tenu à jour par les écritures, et un SKU modifié depuis est détecté à la lecture.
      */
     public ProductResponseDto getProductBySku(String sku) {
         log.debug("Récupération du produit avec le SKU: {}", sku);
-        Product product = productRepository.findBySku(sku)
-                .orElseThrow(() -> new ProductNotFoundException("Produit non trouvé avec le SKU: " + sku));
-        return productMapper.toResponseDto(product);
+        Cache skuCache = cacheManager.getCache(SKU_CACHE);
+        Cache productCache = cacheManager.getCache("product");
+        if (skuCache == null || productCache == null) {
+            return findProductBySku(sku);
+        }
+
+        // Selon le format du cache, l'ID peut être relu comme un Integer
+        long id = loadThroughCache(skuCache, sku, () -> (Number) findProductBySku(sku).getId()).longValue();
+        ProductResponseDto product;
+        try {
+            product = loadThroughCache(productCache, id, () -> findProductById(id));
+        } catch (ProductNotFoundException e) {
+            skuCache.evict(sku);
+            return findProductBySku(sku);
+        }
+        if (!sku.equals(product.getSku())) {
+            skuCache.evict(sku);
+            return findProductBySku(sku);
+        }
+        return product;
+    }
+
+    private ProductResponseDto findProductById(Long id) {
+        return withLedgerStock(productRepository.findResponseById(id)
+                .orElseThrow(() -> new ProductNotFoundException(NOT_FOUND_MESSAGE + id)));
+    }
+
+    private ProductResponseDto findProductBySku(String sku) {
+        return withLedgerStock(productRepository.findResponseBySku(sku)
+                .orElseThrow(() -> new ProductNotFoundException("Produit non trouvé avec le SKU: " + sku)));
+    }
+
+    private ProductResponseDto withLedgerStock(ProductResponseDto product) {
+        return withLedgerStock(List.of(product)).get(0);
+    }
+
+    /**
+     * Les produits gérés par le registre Redis portent la quantité du registre : la base ne la reçoit
+     * qu'au write-behind suivant
+     */
+    private List<ProductResponseDto> withLedgerStock(List<ProductResponseDto> products) {
+        List<Long> managedIds = products.stream()
+                .map(ProductResponseDto::getId)
+                .filter(stockLedgerPolicy::manages)
+                .toList();
+        if (managedIds.isEmpty()) {
+            return products;
+        }
+        Map<Long, Integer> quantities = stockLedger.quantities(managedIds);
+        return products.stream()
+                .map(product -> quantities.containsKey(product.getId())
+                        ? product.withQuantityInStock(quantities.get(product.getId()))
+                        : product)
+                .toList();
+    }
+
+    /**
+     * Récupère un lot de produits par ID, dans l'ordre demandé (doublons compris), un produit inexistant
+     * donnant une entrée found=false. Les entrées en cache sont lues en un seul aller-retour Redis,
+     * les absentes chargées en une seule requête puis remises en cache en une seule écriture groupée.
+     */
+    public List<ProductLookupItemDto> getProductsByIds(List<Long> ids) {
+        log.debug("Récupération groupée de {} produits", ids.size());
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Un ID ne peut pas être null");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, ProductResponseDto> products = new HashMap<>();
+
+        Cache productCache = cacheManager.getCache("product");
+        if (productCache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.getAll(distinctIds).forEach((id, cached) -> {
+                if (cached.get() instanceof ProductResponseDto product) {
+                    products.put((Long) id, product);
+                }
+            });
+        } else if (productCache != null) {
+            distinctIds.forEach(id -> {
+                ProductResponseDto product = productCache.get(id, ProductResponseDto.class);
+                if (product != null) {
+                    products.put(id, product);
+                }
+            });
+        }
+
+        List<Long> missingIds = distinctIds.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            Map<Long, ProductResponseDto> loaded = withLedgerStock(productRepository.findResponsesByIdIn(missingIds))
+                    .stream()
+                    .collect(Collectors.toMap(ProductResponseDto::getId, product -> product));
+            products.putAll(loaded);
+            if (productCache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.putAll(loaded);
+            } else if (productCache != null) {
+                loaded.forEach(productCache::put);
+            }
+        }
+
+        return ids.stream()
+                .map(id -> products.containsKey(id)
+                        ? ProductLookupItemDto.found(products.get(id))
+                        : ProductLookupItemDto.notFound(id))
+                .toList();
+    }
+
+    /**
+     * Cache.get(key, loader) enveloppe les exceptions du chargement : on rend l'exception métier d'origine
+     */
+    private static <T> T loadThroughCache(Cache cache, Object key, Callable<T> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     /**
      * Crée un nouveau produit
      */
-    @CachePut(value = "products", key = "#result.id")
+    @CachePut(value = "product", key = "#result.id")
     @Transactional
     public ProductResponseDto createProduct(CreateProductDto createProductDto) {
         log.debug("Création d'un nouveau produit: {}", createProductDto.getName());
@@ -100,14 +303,144 @@ public class ProductService {
         Product savedProduct = productRepository.save(product);
         log.info("Produit créé avec succès avec l'ID: {}", savedProduct.getId());
         ProductResponseDto productResponseDto = productMapper.toResponseDto(savedProduct);
-        kafkaProductEventEmitter.sendMessage(KafkaTopics.PRODUCT_CREATED.getTopicName(), "product-"+ productResponseDto.getId(), productResponseDto);
+        productResponseDto = productEventOutbox.append(KafkaTopics.PRODUCT_CREATED, productResponseDto);
+        productPageCache.invalidate();
         return productResponseDto;
     }
 
+    /**
+     * Crée un lot de produits : unicité des SKU vérifiée en une requête, insertions groupées
+     * par le batching JDBC d'Hibernate et événements enregistrés dans l'outbox
+     */
+    @Transactional
+    public List<ProductResponseDto> createProducts(List<CreateProductDto> createProductDtos) {
+        log.debug("Création d'un lot de {} produits", createProductDtos.size());
+
+        List<String> skus = createProductDtos.stream()
+                .map(CreateProductDto::getSku)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<String> uniqueSkus = new HashSet<>();
+        for (String sku : skus) {
+            if (!uniqueSkus.add(sku)) {
+                throw new SkuAlreadyExistsException("Le SKU " + sku + " apparaît plusieurs fois dans le lot");
+            }
+        }
+        if (!skus.isEmpty()) {
+            List<String> existingSkus = productRepository.findExistingSkus(skus);
+            if (!existingSkus.isEmpty()) {
+                throw new SkuAlreadyExistsException("Des produits existent déjà avec les SKU: " + existingSkus);
+            }
+        }
+
+        List<Product> products = createProductDtos.stream()
+                .map(productMapper::toEntity)
+                .toList();
+        List<Product> savedProducts = productRepository.saveAll(products);
+        productRepository.flush();
+        log.info("Lot de {} produits créé avec succès", savedProducts.size());
+
+        List<ProductResponseDto> productDtos = productEventOutbox.appendAll(KafkaTopics.PRODUCT_CREATED,
+                savedProducts.stream()
+                        .map(productMapper::toResponseDto)
+                        .toList());
+        productPageCache.invalidate();
+        return productDtos;
+    }
+
+    /**
+     * Met à jour un lot de produits : chargement en une requête, mises à jour groupées par le
+     * batching JDBC et événements enregistrés dans l'outbox
+     */
+    @Transactional
+    public List<ProductResponseDto> updateProducts(List<BatchUpdateProductsDto.Item> items) {
+        log.debug("Mise à jour d'un lot de {} produits", items.size());
+
+        Map<Long, UpdateProductDto> changesById = new LinkedHashMap<>();
+        for (BatchUpdateProductsDto.Item item : items) {
+            if (changesById.put(item.getId(), item.getChanges()) != null) {
+                throw new IllegalArgumentException("Le produit " + item.getId() + " apparaît plusieurs fois dans le lot");
+            }
+        }
+
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(changesById.keySet())) {
+            productsById.put(product.getId(), product);
+        }
+        List<Long> missingIds = changesById.keySet().stream()
+                .filter(id -> !productsById.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new ProductNotFoundException("Produits non trouvés avec les IDs: " + missingIds);
+        }
+
+        checkBatchSkus(changesById);
+
+        Map<Long, Integer> previousQuantities = new HashMap<>();
+        List<Product> updatedProducts = changesById.entrySet().stream()
+                .map(entry -> {
+                    Product product = productsById.get(entry.getKey());
+                    previousQuantities.put(product.getId(), product.getQuantityInStock());
+                    productMapper.updateEntityFromDto(entry.getValue(), product);
+                    syncStockLedger(entry.getKey(), entry.getValue().getQuantityInStock());
+                    return product;
+                })
+                .toList();
+        productRepository.flush();
+        log.info("Lot de {} produits mis à jour avec succès", updatedProducts.size());
+
+        List<ProductResponseDto> productDtos = productEventOutbox.appendAll(KafkaTopics.PRODUCT_UPDATED,
+                updatedProducts.stream()
+                        .map(productMapper::toResponseDto)
+                        .toList());
+        Cache productCache = cacheManager.getCache("product");
+        if (productCache != null) {
+            productDtos.forEach(productDto -> productCache.put(productDto.getId(), productDto));
+        }
+        productDtos.forEach(productDto ->
+                lowStockAlertPublisher.stockChanged(productDto, previousQuantities.get(productDto.getId())));
+        productPageCache.invalidate();
+        return productDtos;
+    }
+
+    /**
+     * Vérifie en une requête qu'aucun SKU demandé dans le lot n'appartient déjà à un autre produit
+     */
+    private void checkBatchSkus(Map<Long, UpdateProductDto> changesById) {
+        Map<String, Long> requestedSkus = new HashMap<>();
+        changesById.forEach((id, changes) -> {
+            if (changes.getSku() != null && requestedSkus.put(changes.getSku(), id) != null) {
+                throw new SkuAlreadyExistsException("Le SKU " + changes.getSku() + " apparaît plusieurs fois dans le lot");
+            }
+        });
+        if (requestedSkus.isEmpty()) {
+            return;
+        }
+        for (Product owner : productRepository.findBySkuIn(requestedSkus.keySet())) {
+            if (!owner.getId().equals(requestedSkus.get(owner.getSku()))) {
+                throw new SkuAlreadyExistsException("Un autre produit avec le SKU " + owner.getSku() + " existe déjà");
+            }
+        }
+    }
+
+    /**
+     * Reporte une quantité fixée directement en base dans le registre de stock Redis, une fois la transaction validée
+     */
+    private void syncStockLedger(Long id, Integer quantity) {
+        if (quantity == null || !stockLedgerPolicy.manages(id)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockLedger.overwrite(id, quantity);
+            }
+        });
+    }
+
     /**
      * Met à jour un produit existant
      */
-    @CacheEvict(value = "products-page", allEntries = true)
     @CachePut(value = "product", key = "#id")
     @Transactional
     public ProductResponseDto updateProduct(Long id, UpdateProductDto updateProductDto) {
@@ -122,18 +455,22 @@ public class ProductService {
             throw new SkuAlreadyExistsException("Un autre produit avec le SKU " + updateProductDto.getSku() + " existe déjà");
         }
 
+        Integer previousQuantity = existingProduct.getQuantityInStock();
         productMapper.updateEntityFromDto(updateProductDto, existingProduct);
         Product updatedProduct = productRepository.save(existingProduct);
+        syncStockLedger(id, updateProductDto.getQuantityInStock());
         log.info("Produit mis à jour avec succès avec l'ID: {}", updatedProduct.getId());
         ProductResponseDto productResponseDto = productMapper.toResponseDto(updatedProduct);
-        kafkaProductEventEmitter.sendMessage(KafkaTopics.PRODUCT_UPDATED.getTopicName(), "product-"+ productResponseDto.getId(), productResponseDto);
+        productResponseDto = productEventOutbox.append(KafkaTopics.PRODUCT_UPDATED, productResponseDto);
+        lowStockAlertPublisher.stockChanged(productResponseDto, previousQuantity);
+        productPageCache.invalidate();
         return productResponseDto;
     }
 
     /**
      * Supprime un produit (suppression logique)
      */
-    @CacheEvict(cacheNames = {"products-page", "product"}, allEntries = true)
+    @CacheEvict(value = "product", key = "#id")
     @Transactional
     public void deleteProduct(Long id) {
         log.debug("Suppression du produit avec l'ID: {}", id);
@@ -143,22 +480,31 @@ public class ProductService {
         
         product.setActive(false);
         ProductResponseDto productResponseDto = productMapper.toResponseDto(productRepository.save(product));
-        kafkaProductEventEmitter.sendMessage(KafkaTopics.PRODUCT_DELETED.getTopicName(), "product-"+ productResponseDto.getId(), productResponseDto);
+        productEventOutbox.append(KafkaTopics.PRODUCT_DELETED, productResponseDto);
+        productPageCache.invalidate();
         log.info("Produit supprimé (logiquement) avec succès avec l'ID: {}", id);
     }
 
     /**
      * Supprime définitivement un produit
      */
+    @CacheEvict(value = "product", key = "#id")
     @Transactional
     public void hardDeleteProduct(Long id) {
         log.debug("Suppression définitive du produit avec l'ID: {}", id);
         
-        if (!productRepository.existsById(id)) {
-            throw new ProductNotFoundException(NOT_FOUND_MESSAGE + id);
-        }
+        ProductResponseDto product = productRepository.findResponseById(id)
+                .orElseThrow(() -> new ProductNotFoundException(NOT_FOUND_MESSAGE + id));
         
+        // Dernier état connu, désactivé, marqué comme suppression définitive : les consommateurs (modèle de lecture)
+        // retirent le produit. Enregistré avant la suppression, la ligne portant la version de l'événement.
+        productEventOutbox.appendHardDelete(product.toBuilder()
+                .active(false)
+                .available(false)
+                .updatedAt(LocalDateTime.now())
+                .build());
         productRepository.deleteById(id);
+        productPageCache.invalidate();
         log.info("Produit supprimé définitivement avec succès avec l'ID: {}", id);
     }
 
@@ -167,21 +513,125 @@ public class ProductService {
      */
     public List<ProductResponseDto> searchProductsByName(String name) {
         log.debug("Recherche de produits par nom: {}", name);
-        List<Product> products = productRepository.findByNameContainingIgnoreCaseAndActiveTrue(name);
-        return products.stream()
-                .map(productMapper::toResponseDto)
+        return productRepository.findActiveResponsesByNameContaining(LikePatterns.escape(name));
+    }
+
+    /**
+     * Recherche des produits par pertinence (nom, description, catégorie, SKU), avec tolérance aux fautes
+     */
+    public Page<ProductResponseDto> searchProducts(String query, Pageable pageable) {
+        log.debug("Recherche classée de produits: {}, pagination: {}", query, pageable);
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Le texte recherché ne peut pas être vide");
+        }
+
+        String normalizedQuery = query.trim();
+        String prefixQuery = toPrefixTsQuery(normalizedQuery);
+        if (prefixQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        // Le tri est imposé par la pertinence : seule la position de la page est conservée
+        Page<Product> products = productRepository.searchRanked(normalizedQuery, prefixQuery,
+                LikePatterns.escape(normalizedQuery), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return products.map(productMapper::toResponseDto);
+    }
+
+    /**
+     * Recherche multicritère des produits actifs avec facettes (catégories et tranches de prix).
+     * Les facettes portent sur l'ensemble filtré ; leur agrégation fournit aussi le total, sans requête de comptage.
+     */
+    public ProductQueryResultDto queryProducts(ProductQueryDto criteria, Pageable pageable) {
+        log.debug("Recherche multicritère de produits: {}, pagination: {}", criteria, pageable);
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("Le prix minimum ne peut pas être supérieur au prix maximum");
+        }
+        List<BigDecimal> priceBounds = priceBounds(criteria.getPriceBuckets());
+        for (Sort.Order order : pageable.getSort()) {
+            if (!QUERY_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Tri non supporté: " + order.getProperty());
+            }
+        }
+
+        Specification<Product> specification = ProductSpecifications.matching(criteria);
+        List<ProductQueryRepository.FacetCount> facetCounts = productRepository.countFacets(specification, priceBounds);
+        long total = facetCounts.stream().mapToLong(ProductQueryRepository.FacetCount::count).sum();
+
+        // Tri stable par ID en dernier critère, pour que les pages ne se chevauchent pas
+        Sort sort = pageable.getSort().getOrderFor("id") != null ? pageable.getSort() : pageable.getSort().and(Sort.by("id"));
+        Pageable stablePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        List<ProductResponseDto> content = pageable.getOffset() < total
+                ? productRepository.findResponses(specification, stablePageable)
+                : List.of();
+
+        return ProductQueryResultDto.builder()
+                .content(content)
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(total)
+                .totalPages((int) ((total + pageable.getPageSize() - 1) / pageable.getPageSize()))
+                .facets(new ProductQueryResultDto.Facets(
+                        categoryFacets(facetCounts), priceBucketFacets(facetCounts, priceBounds)))
+                .build();
+    }
+
+    private static List<BigDecimal> priceBounds(List<BigDecimal> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return DEFAULT_PRICE_BUCKETS;
+        }
+        if (requested.size() > MAX_PRICE_BUCKETS) {
+            throw new IllegalArgumentException("Au plus " + MAX_PRICE_BUCKETS + " bornes de tranches de prix");
+        }
+        for (int i = 0; i < requested.size(); i++) {
+            if (requested.get(i) == null || (i > 0 && requested.get(i).compareTo(requested.get(i - 1)) <= 0)) {
+                throw new IllegalArgumentException("Les bornes des tranches de prix doivent être strictement croissantes");
+            }
+        }
+        return requested;
+    }
+
+    private static List<ProductQueryResultDto.CategoryCount> categoryFacets(
+            List<ProductQueryRepository.FacetCount> facetCounts) {
+        Map<String, Long> counts = new HashMap<>();
+        facetCounts.forEach(facet -> counts.merge(facet.category(), facet.count(), Long::sum));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry::getKey, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(entry -> new ProductQueryResultDto.CategoryCount(entry.getKey(), entry.getValue()))
                 .toList();
     }
 
+    private static List<ProductQueryResultDto.PriceBucketCount> priceBucketFacets(
+            List<ProductQueryRepository.FacetCount> facetCounts, List<BigDecimal> priceBounds) {
+        long[] counts = new long[priceBounds.size() + 1];
+        facetCounts.forEach(facet -> counts[facet.priceBucket()] += facet.count());
+        List<ProductQueryResultDto.PriceBucketCount> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new ProductQueryResultDto.PriceBucketCount(
+                    i == 0 ? null : priceBounds.get(i - 1),
+                    i == priceBounds.size() ? null : priceBounds.get(i),
+                    counts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Transforme le texte saisi en requête tsquery où chaque mot est un préfixe ("lapt del" -> "lapt:* & del:*"),
+     * en ne gardant que lettres et chiffres pour ne jamais produire de syntaxe tsquery invalide
+     */
+    private static String toPrefixTsQuery(String query) {
+        return Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token.toLowerCase(Locale.ROOT) + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
     /**
      * Récupère les produits par catégorie
      */
     public List<ProductResponseDto> getProductsByCategory(String category) {
         log.debug("Récupération des produits par catégorie: {}", category);
-        List<Product> products = productRepository.findByCategoryIgnoreCaseAndActiveTrue(category);
-        return products.stream()
-                .map(productMapper::toResponseDto)
-                .toList();
+        return productRepository.findActiveResponsesByCategory(category);
     }
 
     /**
@@ -189,10 +639,7 @@ public class ProductService {
      */
     public List<ProductResponseDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         log.debug("Récupération des produits dans la gamme de prix: {} - {}", minPrice, maxPrice);
-        List<Product> products = productRepository.findByPriceBetweenAndActiveTrue(minPrice, maxPrice);
-        return products.stream()
-                .map(productMapper::toResponseDto)
-                .toList();
+        return productRepository.findActiveResponsesByPriceBetween(minPrice, maxPrice);
     }
 
     /**
@@ -200,10 +647,7 @@ public class ProductService {
      */
     public List<ProductResponseDto> getAvailableProducts() {
         log.debug("Récupération des produits disponibles");
-        List<Product> products = productRepository.findAvailableProducts();
-        return products.stream()
-                .map(productMapper::toResponseDto)
-                .toList();
+        return productRepository.findAvailableResponses();
     }
 
     /**
@@ -211,32 +655,80 @@ public class ProductService {
      */
     public List<ProductResponseDto> getLowStockProducts(Integer threshold) {
         log.debug("Récupération des produits avec stock faible (seuil: {})", threshold);
-        List<Product> products = productRepository.findProductsWithLowStock(threshold != null ? threshold : 10);
-        return products.stream()
-                .map(productMapper::toResponseDto)
-                .toList();
+        return productRepository.findLowStockResponses(threshold != null ? threshold : 10);
+    }
+
+    /**
+     * Diffuse les produits actifs un par un, sans les charger tous en mémoire
+     */
+    public void streamActiveProducts(Consumer<ProductResponseDto> consumer) {
+        log.debug("Diffusion en flux des produits actifs");
+        try (Stream<ProductResponseDto> products = productRepository.streamActiveProducts()) {
+            products.forEach(consumer);
+        }
+    }
+
+    /**
+     * Diffuse les produits actifs d'une catégorie un par un
+     */
+    public void streamProductsByCategory(String category, Consumer<ProductResponseDto> consumer) {
+        log.debug("Diffusion en flux des produits par catégorie: {}", category);
+        try (Stream<ProductResponseDto> products = productRepository.streamByCategory(category)) {
+            products.forEach(consumer);
+        }
+    }
+
+    /**
+     * Diffuse les produits disponibles (en stock) un par un
+     */
+    public void streamAvailableProducts(Consumer<ProductResponseDto> consumer) {
+        log.debug("Diffusion en flux des produits disponibles");
+        try (Stream<ProductResponseDto> products = productRepository.streamAvailableProducts()) {
+            products.forEach(consumer);
+        }
+    }
+
+    /**
+     * Diffuse les produits avec stock faible un par un
+     */
+    public void streamLowStockProducts(Integer threshold, Consumer<ProductResponseDto> consumer) {
+        log.debug("Diffusion en flux des produits avec stock faible (seuil: {})", threshold);
+        try (Stream<ProductResponseDto> products = productRepository.streamProductsWithLowStock(threshold != null ? threshold : 10)) {
+            products.forEach(consumer);
+        }
     }
 
     /**
      * Met à jour le stock d'un produit
      */
+    @CachePut(value = "product", key = "#id")
     @Transactional
     public ProductResponseDto updateStock(Long id, Integer quantity, boolean isIncrease) {
         log.debug("Mise à jour du stock pour le produit ID: {}, quantité: {}, augmentation: {}", 
                  id, quantity, isIncrease);
         
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(NOT_FOUND_MESSAGE + id));
-        
-        if (isIncrease) {
-            product.increaseStock(quantity);
-        } else {
-            product.reduceStock(quantity);
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("La quantité doit être positive");
         }
-        
-        Product updatedProduct = productRepository.save(product);
-        log.info("Stock mis à jour pour le produit ID: {}, nouveau stock: {}", 
-                id, updatedProduct.getQuantityInStock());
-        return productMapper.toResponseDto(updatedProduct);
+
+        // Mise à jour atomique en base, nouvel état renvoyé par la même instruction (RETURNING) :
+        // ni lecture préalable, ni relecture, ni verrou tenu entre deux allers-retours
+        Optional<ProductResponseDto> updated = isIncrease
+                ? productRepository.increaseStock(id, quantity)
+                : productRepository.decreaseStock(id, quantity);
+        if (updated.isEmpty()) {
+            // Seul le cas d'échec coûte une seconde requête, pour distinguer l'absence du stock insuffisant
+            if (!productRepository.existsById(id)) {
+                throw new ProductNotFoundException(NOT_FOUND_MESSAGE + id);
+            }
+            throw new IllegalStateException("Stock insuffisant");
+        }
+
+        int newQuantity = updated.get().getQuantityInStock();
+        ProductResponseDto productResponseDto = productEventOutbox.append(KafkaTopics.PRODUCT_UPDATED, updated.get());
+        lowStockAlertPublisher.stockChanged(productResponseDto, isIncrease ? newQuantity - quantity : newQuantity + quantity);
+        productPageCache.invalidate();
+        log.info("Stock mis à jour pour le produit ID: {}, nouveau stock: {}", id, newQuantity);
+        return productResponseDto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.manager.product.service;
+
+import com.manager.product.alert.LowStockAlertPublisher;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.stock.RedisStockLedger;
+import com.manager.product.stock.StockLedgerPolicy;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Point d'entrée des mouvements de stock : les produits gérés par le registre Redis y sont ajustés
+ * sans transaction SQL, les autres passent par la mise à jour atomique en base de ProductService.
+ * Pour les premiers, les listes suivent la base : seules les quantités y sont en retard d'une passe
+ * de write-behind, un changement de disponibilité étant écrit immédiatement.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(value = "product.service", description = "Durée des opérations du service produit")
+public class StockService {
+
+    private final ProductService productService;
+    private final RedisStockLedger stockLedger;
+    private final StockLedgerPolicy stockLedgerPolicy;
+    private final CacheManager cacheManager;
+    private final LowStockAlertPublisher lowStockAlertPublisher;
+
+    /**
+     * Augmente ou réduit le stock d'un produit
+     */
+    public ProductResponseDto adjustStock(Long id, Integer quantity, boolean isIncrease) {
+        if (!stockLedgerPolicy.manages(id)) {
+            return productService.updateStock(id, quantity, isIncrease);
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("La quantité doit être positive");
+        }
+
+        int newQuantity = stockLedger.adjust(id, isIncrease ? quantity : -quantity);
+        int previousQuantity = isIncrease ? newQuantity - quantity : newQuantity + quantity;
+        log.debug("Stock du produit ID: {} ajusté dans le registre Redis, nouveau stock: {}", id, newQuantity);
+        if ((previousQuantity > 0) != (newQuantity > 0)) {
+            // La disponibilité a changé : les listes et leurs ETags, fondés sur la base, doivent la refléter
+            // sans attendre le write-behind
+            stockLedger.writeThrough(id);
+        }
+
+        ProductResponseDto updatedProduct = productService.getProductById(id).withQuantityInStock(newQuantity);
+        // Une copie mise en cache ici pourrait écraser celle d'un mouvement concurrent plus récent :
+        // l'entrée est retirée, le prochain chargement relit la quantité du registre
+        Cache productCache = cacheManager.getCache("product");
+        if (productCache != null) {
+            productCache.evict(id);
+        }
+        lowStockAlertPublisher.stockChanged(updatedProduct, previousQuantity);
+        return updatedProduct;
+    }
+}
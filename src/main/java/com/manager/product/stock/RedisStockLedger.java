@@ -0,0 +1,287 @@
+package com.manager.product.stock;
+
+import com.manager.product.cache.ProductPageCache;
+import com.manager.product.config.KafkaTopics;
+import com.manager.product.config.StockLedgerProperties;
+import com.manager.product.entity.Product;
+import com.manager.product.exception.ProductNotFoundException;
+import com.manager.product.outbox.ProductEventOutbox;
+import com.manager.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registre de stock résidant dans Redis pour les produits à très forte demande (ventes flash).
+ * Les mouvements sont appliqués atomiquement par un script Lua, puis écrits en base de façon
+ * asynchrone et regroupée (write-behind). Une réconciliation périodique corrige les écarts.
+ * Chaque écriture en base incrémente la version du produit et publie PRODUCT_UPDATED via l'outbox,
+ * comme les autres modifications.
+ */
+@Component
+@Slf4j
+public class RedisStockLedger {
+
+    private static final String QUANTITY_KEY_PREFIX = "stock:qty:";
+    private static final String DIRTY_KEY = "stock:dirty";
+    private static final long INSUFFICIENT_STOCK = -1;
+    private static final long NOT_LOADED = -2;
+
+    private static final RedisScript<Long> ADJUST_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/stock-adjust.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLedgerPolicy policy;
+    private final StockLedgerProperties properties;
+    private final ProductPageCache productPageCache;
+    private final ProductEventOutbox productEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    public RedisStockLedger(StringRedisTemplate redisTemplate,
+                            ProductRepository productRepository,
+                            JdbcTemplate jdbcTemplate,
+                            StockLedgerPolicy policy,
+                            StockLedgerProperties properties,
+                            ProductPageCache productPageCache,
+                            ProductEventOutbox productEventOutbox,
+                            TransactionTemplate transactionTemplate,
+                            CacheManager cacheManager) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.policy = policy;
+        this.properties = properties;
+        this.productPageCache = productPageCache;
+        this.productEventOutbox = productEventOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Applique une variation de stock et retourne la nouvelle quantité.
+     * La quantité est chargée depuis la base au premier mouvement du produit.
+     */
+    public int adjust(Long productId, int delta) {
+        List<String> keys = List.of(quantityKey(productId), DIRTY_KEY);
+        Object[] args = {String.valueOf(delta), String.valueOf(productId)};
+
+        Long result = redisTemplate.execute(ADJUST_SCRIPT, keys, args);
+        if (result != null && result == NOT_LOADED) {
+            load(productId);
+            result = redisTemplate.execute(ADJUST_SCRIPT, keys, args);
+        }
+        if (result == null || result == NOT_LOADED) {
+            throw new IllegalStateException("Registre de stock indisponible pour le produit " + productId);
+        }
+        if (result == INSUFFICIENT_STOCK) {
+            throw new IllegalStateException("Stock insuffisant");
+        }
+        return result.intValue();
+    }
+
+    /**
+     * Remplace la quantité du registre (après une mise à jour directe du produit en base)
+     */
+    public void overwrite(Long productId, int quantity) {
+        redisTemplate.opsForValue().set(quantityKey(productId), String.valueOf(quantity));
+        redisTemplate.opsForSet().add(DIRTY_KEY, String.valueOf(productId));
+    }
+
+    private void load(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Produit non trouvé avec l'ID: " + productId));
+        // SET NX : si une autre instance a chargé la quantité entre-temps, sa valeur (éventuellement déjà modifiée) est conservée
+        redisTemplate.opsForValue().setIfAbsent(quantityKey(productId), String.valueOf(product.getQuantityInStock()));
+    }
+
+    /**
+     * Quantités actuelles des produits présents dans le registre (les autres sont absents du résultat)
+     */
+    public Map<Long, Integer> quantities(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        List<String> quantities = redisTemplate.opsForValue()
+                .multiGet(ids.stream().map(RedisStockLedger::quantityKey).toList());
+        Map<Long, Integer> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String quantity = quantities == null ? null : quantities.get(i);
+            if (quantity != null) {
+                result.put(ids.get(i), Integer.parseInt(quantity));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Écrit en base les quantités modifiées depuis la dernière passe : plusieurs mouvements
+     * sur un même produit ne produisent qu'une seule écriture
+     */
+    @Scheduled(fixedDelayString = "${app.stock.ledger.flush-interval-ms:500}")
+    public void flush() {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        int flushed;
+        do {
+            flushed = flushBatch();
+        } while (flushed >= properties.getFlushBatchSize());
+    }
+
+    private int flushBatch() {
+        List<String> productIds = redisTemplate.opsForSet().pop(DIRTY_KEY, properties.getFlushBatchSize());
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+
+        List<String> quantities = redisTemplate.opsForValue()
+                .multiGet(productIds.stream().map(RedisStockLedger::quantityKey).toList());
+        Map<Long, Integer> updates = new TreeMap<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            String quantity = quantities == null ? null : quantities.get(i);
+            if (quantity != null) {
+                updates.put(Long.parseLong(productIds.get(i)), Integer.parseInt(quantity));
+            }
+        }
+
+        try {
+            writeQuantities(updates);
+            log.debug("Write-behind du stock de {} produits", updates.size());
+        } catch (DataAccessException | TransactionException e) {
+            // Les produits restent à écrire : ils seront repris à la passe suivante
+            redisTemplate.opsForSet().add(DIRTY_KEY, productIds.toArray(String[]::new));
+            log.warn("Échec du write-behind du stock, nouvelle tentative à la prochaine passe: {}", e.getMessage());
+        }
+        return productIds.size();
+    }
+
+    /**
+     * Écrit aussitôt en base la quantité actuelle du produit, sans attendre la passe de write-behind.
+     * Le produit reste marqué à écrire : la passe suivante réécrit la dernière quantité si un mouvement
+     * concurrent a été écrit avant celui-ci. Un échec est seulement journalisé, la passe suivante le reprend.
+     */
+    public void writeThrough(Long productId) {
+        try {
+            String quantity = redisTemplate.opsForValue().get(quantityKey(productId));
+            if (quantity != null) {
+                writeQuantities(Map.of(productId, Integer.parseInt(quantity)));
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Écriture immédiate du stock du produit {} impossible, reprise au write-behind: {}",
+                    productId, e.getMessage());
+        }
+    }
+
+    /**
+     * Compare le registre à la base : les écarts sur les produits gérés sont réécrits depuis Redis,
+     * les produits qui ne sont plus gérés sont rendus à la base puis retirés du registre
+     */
+    @Scheduled(fixedDelayString = "${app.stock.ledger.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        List<Long> productIds = scanLedgerProductIds();
+        for (int from = 0; from < productIds.size(); from += properties.getFlushBatchSize()) {
+            reconcileChunk(productIds.subList(from, Math.min(from + properties.getFlushBatchSize(), productIds.size())));
+        }
+    }
+
+    private void reconcileChunk(List<Long> productIds) {
+        List<String> quantities = redisTemplate.opsForValue()
+                .multiGet(productIds.stream().map(RedisStockLedger::quantityKey).toList());
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(productIds).forEach(product -> products.put(product.getId(), product));
+
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            String quantity = quantities == null ? null : quantities.get(i);
+            Product product = products.get(productId);
+            if (quantity == null) {
+                continue;
+            }
+            if (product == null) {
+                redisTemplate.delete(quantityKey(productId));
+            } else if (!policy.manages(product)) {
+                release(productId, Integer.parseInt(quantity));
+            } else if (product.getQuantityInStock() != Integer.parseInt(quantity)) {
+                log.info("Écart de stock détecté pour le produit {} (base: {}, registre: {})",
+                        productId, product.getQuantityInStock(), quantity);
+                redisTemplate.opsForSet().add(DIRTY_KEY, String.valueOf(productId));
+            }
+        }
+    }
+
+    /**
+     * Écrit les quantités dans une seule transaction, lignes modifiées par ID croissant : chaque produit
+     * reçoit une nouvelle version et un événement PRODUCT_UPDATED portant l'état écrit
+     */
+    private void writeQuantities(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> updates.add(new Object[]{quantity, now, productId}));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("UPDATE products SET quantity_in_stock = ?, updated_at = ? WHERE id = ?", updates);
+            productEventOutbox.appendAll(KafkaTopics.PRODUCT_UPDATED,
+                    productRepository.findResponsesByIdIn(quantities.keySet()));
+            // Les listes (pages en cache et ETags) dépendent des quantités en base
+            productPageCache.invalidate();
+        });
+        // Version et date de modification ont changé : les produits sont relus au prochain accès
+        Cache productCache = cacheManager.getCache("product");
+        if (productCache != null) {
+            quantities.keySet().forEach(productCache::evict);
+        }
+    }
+
+    private void release(Long productId, int quantity) {
+        writeQuantities(Map.of(productId, quantity));
+        redisTemplate.opsForSet().remove(DIRTY_KEY, String.valueOf(productId));
+        redisTemplate.delete(quantityKey(productId));
+        log.info("Le stock du produit {} n'est plus géré par le registre Redis", productId);
+    }
+
+    private List<Long> scanLedgerProductIds() {
+        List<Long> productIds = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(QUANTITY_KEY_PREFIX + "*").count(1000).build();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                cursor.forEachRemaining(key ->
+                        productIds.add(Long.parseLong(new String(key, StandardCharsets.UTF_8).substring(QUANTITY_KEY_PREFIX.length()))));
+            }
+            return null;
+        });
+        return productIds;
+    }
+
+    private static String quantityKey(Object productId) {
+        return QUANTITY_KEY_PREFIX + productId;
+    }
+}
@@ -0,0 +1,79 @@
+package com.manager.product.stock;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manager.product.config.StockLedgerProperties;
+import com.manager.product.entity.Product;
+import com.manager.product.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Détermine, par produit ou par catégorie, si le stock est géré par le registre Redis
+ */
+@Component
+public class StockLedgerPolicy {
+
+    private final StockLedgerProperties properties;
+    private final ProductRepository productRepository;
+
+    /**
+     * Catégorie de chaque produit, mise en cache pour ne pas interroger la base à chaque mouvement de stock
+     */
+    private final Cache<Long, Optional<String>> categories;
+
+    public StockLedgerPolicy(StockLedgerProperties properties, ProductRepository productRepository) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.categories = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean manages(Long productId) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        if (properties.getProductIds().contains(productId)) {
+            return true;
+        }
+        return !properties.getCategories().isEmpty()
+                && categoryOf(productId).map(this::isManagedCategory).orElse(false);
+    }
+
+    public boolean manages(Product product) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        categories.put(product.getId(), Optional.ofNullable(product.getCategory()));
+        return properties.getProductIds().contains(product.getId())
+                || (product.getCategory() != null && isManagedCategory(product.getCategory()));
+    }
+
+    /**
+     * La requête SQL est faite hors de Cache.get(key, loader) : le chargement s'y exécute sous le verrou
+     * synchronized d'un bin de ConcurrentHashMap, qui épinglerait un thread virtuel à son porteur
+     */
+    private Optional<String> categoryOf(Long productId) {
+        Optional<String> category = categories.getIfPresent(productId);
+        if (category == null) {
+            category = productRepository.findById(productId).map(Product::getCategory);
+            categories.put(productId, category);
+        }
+        return category;
+    }
+
+    private boolean isManagedCategory(String category) {
+        String normalized = category.toLowerCase(Locale.ROOT);
+        return properties.getCategories().stream()
+                .anyMatch(managed -> managed.toLowerCase(Locale.ROOT).equals(normalized));
+    }
+}
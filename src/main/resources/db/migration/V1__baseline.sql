@@ -0,0 +1,62 @@
+-- Schéma initial, identique à celui produit jusqu'ici par ddl-auto=update et schema.sql.
+-- Idempotent : sur une base existante (baseline-version=0), seuls les éléments manquants sont créés.
+
+-- Les IDs proviennent de séquences allouées par blocs de 50 (optimiseur "pooled" de Hibernate)
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id                bigint         NOT NULL PRIMARY KEY,
+    name              varchar(100)   NOT NULL,
+    description       varchar(500),
+    price             numeric(10, 2) NOT NULL,
+    quantity_in_stock integer        NOT NULL,
+    category          varchar(50),
+    sku               varchar(20),
+    active            boolean        NOT NULL,
+    created_at        timestamp(6)   NOT NULL,
+    updated_at        timestamp(6)   NOT NULL
+);
+
+-- Sur une base créée par Hibernate, l'unicité du SKU existe déjà sous un nom généré
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY (i.indkey)
+        WHERE i.indrelid = 'products'::regclass AND i.indisunique AND i.indnatts = 1 AND a.attname = 'sku'
+    ) THEN
+        ALTER TABLE products ADD CONSTRAINT uk_products_sku UNIQUE (sku);
+    END IF;
+END $$;
+
+-- Événements en attente de publication (transactional outbox)
+CREATE TABLE IF NOT EXISTS product_outbox (
+    id         bigint       NOT NULL PRIMARY KEY,
+    topic      varchar(100) NOT NULL,
+    event_key  varchar(100) NOT NULL,
+    payload    text         NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+-- La séquence est placée au-delà du plus grand ID existant (lignes créées par l'ancienne colonne IDENTITY)
+-- et ne recule jamais
+SELECT setval('products_seq', GREATEST(
+        (SELECT last_value FROM products_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM products) + 50));
+
+-- Recherche plein texte et tolérante aux fautes sur le nom, la description, la catégorie et le SKU.
+-- La colonne search_vector est calculée par PostgreSQL : aucune synchronisation applicative n'est nécessaire.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple'::regconfig, coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple'::regconfig, coalesce(sku, '')), 'A') ||
+        setweight(to_tsvector('simple'::regconfig, coalesce(category, '')), 'B') ||
+        setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_sku_trgm ON products USING gin (sku gin_trgm_ops);
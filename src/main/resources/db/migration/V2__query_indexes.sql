@@ -0,0 +1,26 @@
+-- Index alignés sur les requêtes de ProductRepository. Presque toutes ne portent que sur les produits actifs :
+-- les index partiels (WHERE active) sont plus petits et ignorent les produits désactivés.
+-- CONCURRENTLY : aucune écriture n'est bloquée pendant la construction ; Flyway exécute donc ce script
+-- hors transaction. Un index resté INVALID après un échec doit être supprimé avant de relancer la migration.
+-- findActiveResponses et findAvailableResponses renvoient l'essentiel de la table : un parcours séquentiel
+-- y reste le meilleur plan, elles n'ont pas d'index dédié.
+
+-- findActiveResponsesByCategory, streamByCategory : lower(category) = lower(:category) AND active
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_category
+    ON products (lower(category)) WHERE active;
+
+-- findActiveResponsesByPriceBetween : price BETWEEN :min AND :max AND active
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_price
+    ON products (price) WHERE active;
+
+-- findLowStockResponses, streamProductsWithLowStock : quantity_in_stock <= :threshold AND active
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_quantity
+    ON products (quantity_in_stock) WHERE active;
+
+-- findActiveResponsesByNameContaining : lower(name) LIKE '%texte%' AND active
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_name_lower_trgm
+    ON products USING gin (lower(name) gin_trgm_ops) WHERE active;
+
+-- countProductsByCategory : agrégat servi par un parcours d'index seul (WHERE active GROUP BY category)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_category_group
+    ON products (category) WHERE active;
@@ -0,0 +1,6 @@
+-- Les IDs de l'outbox ordonnent les événements d'un même produit : ils sont désormais tirés un par un,
+-- sous le verrou de la ligne du produit, au lieu de blocs de 50 pré-alloués par chaque instance
+-- (un événement validé plus tard pouvait porter un ID inférieur à un événement déjà publié).
+-- Les instances qui allouent encore par blocs doivent être arrêtées avant le déploiement : leurs blocs
+-- chevaucheraient les IDs tirés un par un.
+ALTER SEQUENCE product_outbox_seq INCREMENT BY 1;
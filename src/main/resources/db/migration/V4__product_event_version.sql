@@ -0,0 +1,7 @@
+-- Version des événements d'un produit : incrémentée par ProductEventOutbox sous le verrou de la ligne,
+-- elle suit l'ordre des commits et permet au modèle de lecture d'écarter un événement plus ancien
+-- que l'état connu sans comparer des horloges différentes.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- Suppression définitive : le relais ajoute un en-tête pour que les consommateurs retirent le produit
+ALTER TABLE product_outbox ADD COLUMN IF NOT EXISTS hard_delete boolean NOT NULL DEFAULT false;
@@ -0,0 +1,8 @@
+-- Libère un bail de chargement de cache, uniquement s'il appartient encore à l'appelant
+-- (un bail expiré puis repris par une autre instance ne doit pas être supprimé).
+-- KEYS[1] : clé du bail, ARGV[1] : jeton de l'appelant
+-- Retourne 1 si le bail a été libéré, 0 sinon
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
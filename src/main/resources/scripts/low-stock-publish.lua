@@ -0,0 +1,13 @@
+-- Publie une variation de stock : numérotation, historique borné et diffusion en une seule opération atomique,
+-- pour que toutes les instances reçoivent les événements dans l'ordre de leurs numéros.
+-- KEYS[1] : compteur des événements, KEYS[2] : historique (liste, événement le plus récent en tête)
+-- ARGV[1] : événement JSON sans numéro, ARGV[2] : taille de l'historique, ARGV[3] : canal pub/sub
+-- Retourne le numéro attribué
+local id = redis.call('INCR', KEYS[1])
+local event = cjson.decode(ARGV[1])
+event['id'] = id
+local payload = cjson.encode(event)
+redis.call('LPUSH', KEYS[2], payload)
+redis.call('LTRIM', KEYS[2], 0, tonumber(ARGV[2]) - 1)
+redis.call('PUBLISH', ARGV[3], payload)
+return id
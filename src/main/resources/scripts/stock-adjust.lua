@@ -0,0 +1,15 @@
+-- Ajuste atomiquement le stock d'un produit dans Redis.
+-- KEYS[1] : clé de la quantité du produit, KEYS[2] : ensemble des produits à écrire en base
+-- ARGV[1] : variation (négative pour une sortie de stock), ARGV[2] : ID du produit
+-- Retourne la nouvelle quantité, -1 si le stock est insuffisant, -2 si la quantité n'est pas encore chargée
+local current = redis.call('GET', KEYS[1])
+if not current then
+    return -2
+end
+local updated = tonumber(current) + tonumber(ARGV[1])
+if updated < 0 then
+    return -1
+end
+redis.call('SET', KEYS[1], updated)
+redis.call('SADD', KEYS[2], ARGV[2])
+return updated
@@ -0,0 +1,241 @@
+package com.manager.product.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manager.product.dto.ProductQueryDto;
+import com.manager.product.entity.Product;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, sur un PostgreSQL réel peuplé de {@value #ROWS} produits, que les requêtes sélectives de ProductRepository
+ * utilisent les index des migrations : le SQL généré par Hibernate est capturé puis passé à EXPLAIN avec les mêmes
+ * paramètres. Ignoré sans Docker.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.manager.product.repository.ProductQueryPlanTests$CapturingStatementInspector",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductQueryPlanTests {
+
+    private static final int ROWS = 200_000;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 10 % de produits inactifs, 200 catégories, prix de 1 à 1000, stock de 0 à 999 ;
+     * ANALYZE fournit au planificateur des statistiques représentatives
+     */
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("""
+                INSERT INTO products (id, name, description, price, quantity_in_stock, category, sku, active,
+                                      created_at, updated_at)
+                SELECT g, 'Produit ' || g || ' ' || md5(g::text), 'Description ' || g,
+                       (g % 100000) / 100.0 + 1, (g * 7919) % 1000, 'Categorie-' || (g % 200), 'SKU-' || g,
+                       g % 10 <> 0, now(), now()
+                FROM generate_series(1, """ + ROWS + ") g");
+        jdbcTemplate.execute("ANALYZE products");
+    }
+
+    @BeforeEach
+    void resetCapture() {
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findResponseByIdUsesPrimaryKey() {
+        assertIndexed(() -> productRepository.findResponseById(4242L), "bigint", 4242L);
+    }
+
+    @Test
+    void findResponseBySkuUsesUniqueIndex() {
+        assertIndexed(() -> productRepository.findResponseBySku("SKU-4242"), "varchar", "SKU-4242");
+    }
+
+    @Test
+    void findResponsesAfterUsesPrimaryKey() {
+        assertIndexed(() -> productRepository.findResponsesAfter(150_000L, Limit.of(20)), "bigint,int", 150_000L, 20);
+    }
+
+    @Test
+    void findActiveResponsesByCategoryUsesPartialIndex() {
+        assertIndexed(() -> productRepository.findActiveResponsesByCategory("categorie-7"), "varchar", "categorie-7");
+    }
+
+    @Test
+    void findActiveResponsesByPriceBetweenUsesPartialIndex() {
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("10.50");
+        assertIndexed(() -> productRepository.findActiveResponsesByPriceBetween(min, max), "numeric,numeric", min, max);
+    }
+
+    @Test
+    void findLowStockResponsesUsesPartialIndex() {
+        assertIndexed(() -> productRepository.findLowStockResponses(2), "int", 2);
+    }
+
+    @Test
+    void findActiveResponsesByNameContainingUsesTrigramIndex() {
+        assertIndexed(() -> productRepository.findActiveResponsesByNameContaining("4242 "), "varchar", "4242 ");
+    }
+
+    @Test
+    void findResponsesByIdInUsesPrimaryKey() {
+        List<Long> ids = List.of(1L, 500L, 99_999L);
+        assertIndexed(() -> productRepository.findResponsesByIdIn(ids), "bigint,bigint,bigint", 1L, 500L, 99_999L);
+    }
+
+    @Test
+    void countFacetsUsesPartialIndex() {
+        Specification<Product> specification = ProductSpecifications.matching(ProductQueryDto.builder()
+                .categories(List.of("categorie-7")).minPrice(BigDecimal.TEN).maxPrice(BigDecimal.valueOf(100)).build());
+        List<BigDecimal> bounds = List.of(BigDecimal.valueOf(10), BigDecimal.valueOf(50));
+        assertIndexed(() -> productRepository.countFacets(specification, bounds),
+                "numeric,int,numeric,int,int,varchar,numeric,numeric", 10, 0, 50, 1, 2, "categorie-7", 10, 100);
+    }
+
+    @Test
+    void findResponsesUsesPartialIndex() {
+        Specification<Product> specification = ProductSpecifications.matching(ProductQueryDto.builder()
+                .categories(List.of("categorie-7")).minPrice(BigDecimal.TEN).maxPrice(BigDecimal.valueOf(100)).build());
+        assertIndexed(() -> productRepository.findResponses(specification, PageRequest.of(0, 20, Sort.by("price", "id"))),
+                "int,boolean,boolean,varchar,numeric,numeric,int,int", 0, true, false, "categorie-7", 10, 100, 0, 20);
+    }
+
+    /**
+     * Exécute la méthode du repository, puis rejoue son SQL avec EXPLAIN EXECUTE : les premières exécutions
+     * d'une requête préparée utilisent un plan spécifique aux valeurs, comme le pilote JDBC en production
+     */
+    private void assertIndexed(Runnable repositoryCall, String parameterTypes, Object... parameters) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> repositoryCall.run());
+
+        assertThat(CapturingStatementInspector.STATEMENTS).hasSize(1);
+        String sql = numberParameters(CapturingStatementInspector.STATEMENTS.get(0));
+
+        StringBuilder arguments = new StringBuilder();
+        for (Object parameter : parameters) {
+            arguments.append(arguments.isEmpty() ? "" : ", ").append(literal(parameter));
+        }
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PREPARE plan_check(" + parameterTypes + ") AS " + sql);
+                try (ResultSet resultSet = statement.executeQuery(
+                        "EXPLAIN (FORMAT JSON) EXECUTE plan_check(" + arguments + ")")) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                }
+            }
+        });
+
+        List<String> sequentialScans = new ArrayList<>();
+        try {
+            collectSequentialScans(objectMapper.readTree(plan).get(0).get("Plan"), sequentialScans);
+        } catch (Exception e) {
+            throw new IllegalStateException("Plan illisible: " + plan, e);
+        }
+        assertThat(sequentialScans)
+                .as("Parcours séquentiel pour %s%nPlan: %s", sql, plan)
+                .isEmpty();
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> sequentialScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            sequentialScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, sequentialScans);
+        }
+    }
+
+    private static String literal(Object value) {
+        return value instanceof String text ? "'" + text.replace("'", "''") + "'" : String.valueOf(value);
+    }
+
+    /**
+     * Les paramètres JDBC (?) deviennent les paramètres positionnels ($1, $2...) de PREPARE
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++index);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    /**
+     * Capture le SQL émis par Hibernate pendant le test
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
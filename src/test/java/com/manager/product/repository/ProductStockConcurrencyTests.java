@@ -0,0 +1,160 @@
+package com.manager.product.repository;
+
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, sur un PostgreSQL réel, que les mises à jour atomiques du stock (UPDATE ... RETURNING utilisées
+ * par ProductService) restent correctes quand de nombreux threads modifient le même produit en parallèle.
+ * Ignoré sans Docker.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStockConcurrencyTests.class);
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentDecreasesNeverOversell() throws Exception {
+        int initialStock = 1000;
+        Long id = createProduct("CONC-DEC", initialStock).getId();
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long elapsedNanos = hammer(() -> inTransaction(() -> productRepository.decreaseStock(id, 1)).isPresent(),
+                accepted, rejected);
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        log.info("{} décréments concurrents en {} ms ({} ops/s)",
+                attempts, elapsedNanos / 1_000_000, attempts * 1_000_000_000L / Math.max(elapsedNanos, 1));
+
+        assertThat(accepted.get()).isEqualTo(initialStock);
+        assertThat(rejected.get()).isEqualTo(attempts - initialStock);
+        assertThat(productRepository.findById(id).orElseThrow().getQuantityInStock()).isZero();
+    }
+
+    @Test
+    void concurrentIncreasesAreNotLost() throws Exception {
+        Long id = createProduct("CONC-INC", 0).getId();
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        hammer(() -> inTransaction(() -> productRepository.increaseStock(id, 2)).isPresent(), accepted, rejected);
+
+        assertThat(rejected.get()).isZero();
+        assertThat(productRepository.findById(id).orElseThrow().getQuantityInStock())
+                .isEqualTo(THREADS * ATTEMPTS_PER_THREAD * 2);
+    }
+
+    @Test
+    void decreaseReturnsUpdatedProduct() {
+        Long id = createProduct("CONC-RET", 3).getId();
+
+        ProductResponseDto updated = inTransaction(() -> productRepository.decreaseStock(id, 3)).orElseThrow();
+
+        assertThat(updated.getId()).isEqualTo(id);
+        assertThat(updated.getQuantityInStock()).isZero();
+        assertThat(updated.getAvailable()).isFalse();
+        assertThat(updated.getUpdatedAt()).isNotNull();
+        assertThat(inTransaction(() -> productRepository.decreaseStock(id, 1))).isEmpty();
+    }
+
+    @Test
+    void decreaseOnUnknownProductUpdatesNothing() {
+        assertThat(inTransaction(() -> productRepository.decreaseStock(Long.MAX_VALUE, 1))).isEmpty();
+    }
+
+    private Product createProduct(String sku, int stock) {
+        return productRepository.save(Product.builder()
+                .name("Produit " + sku)
+                .price(new BigDecimal("9.99"))
+                .quantityInStock(stock)
+                .sku(sku)
+                .build());
+    }
+
+    private Optional<ProductResponseDto> inTransaction(Supplier<Optional<ProductResponseDto>> action) {
+        Optional<ProductResponseDto> result = new TransactionTemplate(transactionManager).execute(status -> action.get());
+        return result == null ? Optional.empty() : result;
+    }
+
+    /**
+     * Lance toutes les tentatives en même temps et compte les mises à jour acceptées (ligne retournée) et refusées
+     */
+    private long hammer(BooleanSupplier attempt, AtomicInteger accepted, AtomicInteger rejected) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (attempt.getAsBoolean()) {
+                        accepted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return System.nanoTime() - startedAt;
+    }
+}
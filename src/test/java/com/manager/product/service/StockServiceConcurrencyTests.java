@@ -0,0 +1,167 @@
+package com.manager.product.service;
+
+import com.manager.product.cache.ProductPageCache;
+import com.manager.product.dto.CreateProductDto;
+import com.manager.product.dto.ProductResponseDto;
+import com.manager.product.repository.ProductRepository;
+import com.manager.product.stock.RedisStockLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, sur PostgreSQL et Redis réels, que des mouvements de stock concurrents sur un produit géré par le registre
+ * Redis, mêlés à des lectures qui rechargent le cache, laissent dans le cache "product" la quantité du registre.
+ * Le write-behind est retardé pour que la base ne resynchronise pas le cache pendant le test. Ignoré sans Docker.
+ */
+@SpringBootTest(properties = {
+        "app.stock.ledger.enabled=true",
+        "app.stock.ledger.categories=" + StockServiceConcurrencyTests.LEDGER_CATEGORY,
+        "app.stock.ledger.flush-interval-ms=3600000",
+        "app.stock.ledger.reconcile-interval-ms=3600000",
+        "app.outbox.relay.enabled=false",
+        "spring.kafka.admin.auto-create=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class StockServiceConcurrencyTests {
+
+    static final String LEDGER_CATEGORY = "registre-test";
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 100;
+    private static final int INITIAL_STOCK = 10_000;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RedisStockLedger stockLedger;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductPageCache productPageCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentAdjustmentsLeaveLedgerQuantityInCache() throws Exception {
+        Long id = productService.createProduct(CreateProductDto.builder()
+                .name("Produit registre")
+                .price(new BigDecimal("9.99"))
+                .quantityInStock(INITIAL_STOCK)
+                .category(LEDGER_CATEGORY)
+                .sku("LEDGER-CONC")
+                .build()).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int expected = INITIAL_STOCK;
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                expected += adjustConcurrently(executor, id);
+
+                assertThat(ledgerQuantity(id)).isEqualTo(expected);
+                Cache.ValueWrapper cached = cacheManager.getCache("product").get(id);
+                if (cached != null) {
+                    assertThat(((ProductResponseDto) cached.get()).getQuantityInStock())
+                            .as("Quantité en cache après le tour %d", round)
+                            .isEqualTo(expected);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(productService.getProductById(id).getQuantityInStock()).isEqualTo(expected);
+    }
+
+    /**
+     * Un mouvement qui rend le produit indisponible est écrit aussitôt en base et change la génération
+     * du catalogue (ETags des listes) ; les autres attendent le write-behind
+     */
+    @Test
+    void availabilityChangeIsWrittenImmediately() {
+        Long id = productService.createProduct(CreateProductDto.builder()
+                .name("Produit registre presque épuisé")
+                .price(new BigDecimal("4.99"))
+                .quantityInStock(2)
+                .category(LEDGER_CATEGORY)
+                .sku("LEDGER-AVAIL")
+                .build()).getId();
+        long generation = productPageCache.currentGeneration();
+
+        stockService.adjustStock(id, 1, false);
+        assertThat(databaseQuantity(id)).isEqualTo(2);
+        assertThat(productPageCache.currentGeneration()).isEqualTo(generation);
+
+        stockService.adjustStock(id, 1, false);
+        assertThat(databaseQuantity(id)).isZero();
+        assertThat(productPageCache.currentGeneration()).isGreaterThan(generation);
+    }
+
+    private int databaseQuantity(Long id) {
+        return productRepository.findById(id).orElseThrow().getQuantityInStock();
+    }
+
+    private int ledgerQuantity(Long id) {
+        return stockLedger.quantities(List.of(id)).get(id);
+    }
+
+    /**
+     * Un mouvement par thread, tous lancés en même temps, chacun suivi d'une lecture qui recharge le cache
+     * @return la variation totale du stock
+     */
+    private int adjustConcurrently(ExecutorService executor, Long id) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                int quantity = 1 + ThreadLocalRandom.current().nextInt(3);
+                boolean increase = ThreadLocalRandom.current().nextBoolean();
+                stockService.adjustStock(id, quantity, increase);
+                productService.getProductById(id);
+                return increase ? quantity : -quantity;
+            }));
+        }
+        start.countDown();
+        int delta = 0;
+        for (Future<Integer> worker : workers) {
+            delta += worker.get();
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,242 @@
+// Équivalent Java (JDK 21, sans dépendance) de product-load.js, utilisé pour les résultats du README
+// quand k6 n'est pas disponible. Même mélange : 70 % lectures par ID, 20 % pages, 10 % mouvements de stock.
+// Usage : java -Dvus=2000 test-data/load-test/ProductLoad.java
+// Options : -Dbase=http://localhost:8080 -Dvus=2000 -DmaxId=10000 -Dramp=20 -Dhold=60 (secondes)
+// Seule la phase de palier (hold) est mesurée. Les métriques Hikari et le nombre de threads de l'application
+// sont relevés chaque seconde sur /actuator/prometheus.
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProductLoad {
+
+    static final String BASE_URL = System.getProperty("base", "http://localhost:8080");
+    static final int VUS = Integer.getInteger("vus", 2000);
+    static final int MAX_ID = Integer.getInteger("maxId", 10_000);
+    static final long RAMP_NANOS = Duration.ofSeconds(Integer.getInteger("ramp", 20)).toNanos();
+    static final long HOLD_NANOS = Duration.ofSeconds(Integer.getInteger("hold", 60)).toNanos();
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    enum Endpoint { GET_BY_ID, PAGE, STOCK }
+
+    record Sample(Endpoint endpoint, long nanos, int status) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        Metrics before = Metrics.scrape(client);
+        MetricsSampler sampler = new MetricsSampler(client);
+        sampler.start();
+
+        ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        long start = System.nanoTime();
+        long holdStart = start + RAMP_NANOS;
+        long holdEnd = holdStart + HOLD_NANOS;
+
+        List<Thread> users = new ArrayList<>(VUS);
+        for (int v = 0; v < VUS; v++) {
+            long startAt = start + v * RAMP_NANOS / VUS;
+            users.add(Thread.ofVirtual().start(() -> {
+                sleepUntil(startAt);
+                while (!stop.get()) {
+                    Endpoint endpoint = pickEndpoint();
+                    long sentAt = System.nanoTime();
+                    int status = send(client, request(endpoint));
+                    long receivedAt = System.nanoTime();
+                    if (sentAt >= holdStart && receivedAt <= holdEnd) {
+                        samples.add(new Sample(endpoint, receivedAt - sentAt, status));
+                    }
+                }
+            }));
+        }
+
+        sleepUntil(holdEnd);
+        stop.set(true);
+        for (Thread user : users) {
+            user.join(REQUEST_TIMEOUT.toMillis());
+        }
+        sampler.stop();
+        report(samples, before, Metrics.scrape(client), sampler);
+    }
+
+    static Endpoint pickEndpoint() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        return roll < 0.7 ? Endpoint.GET_BY_ID : roll < 0.9 ? Endpoint.PAGE : Endpoint.STOCK;
+    }
+
+    static HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (endpoint) {
+            case GET_BY_ID -> HttpRequest.newBuilder(URI.create(BASE_URL + "/api/v1/products/" + (1 + random.nextInt(MAX_ID))))
+                    .timeout(REQUEST_TIMEOUT).GET().build();
+            case PAGE -> HttpRequest.newBuilder(URI.create(BASE_URL + "/api/v1/products?page=" + random.nextInt(50) + "&size=20"))
+                    .timeout(REQUEST_TIMEOUT).GET().build();
+            case STOCK -> HttpRequest.newBuilder(URI.create(BASE_URL + "/api/v1/products/" + (1 + random.nextInt(MAX_ID)) + "/stock/increase"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\":1}"))
+                    .build();
+        };
+    }
+
+    static int send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Mêmes critères de succès que les checks de product-load.js
+     */
+    static boolean succeeded(Sample sample) {
+        return sample.endpoint() == Endpoint.PAGE
+                ? sample.status() == 200
+                : sample.status() == 200 || sample.status() == 404;
+    }
+
+    static void report(ConcurrentLinkedQueue<Sample> samples, Metrics before, Metrics after, MetricsSampler sampler) {
+        double seconds = HOLD_NANOS / 1e9;
+        Map<String, Long> statuses = new TreeMap<>();
+        List<Long> all = new ArrayList<>();
+        long failed = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            List<Long> latencies = new ArrayList<>();
+            long endpointFailed = 0;
+            for (Sample sample : samples) {
+                if (sample.endpoint() != endpoint) {
+                    continue;
+                }
+                latencies.add(sample.nanos());
+                statuses.merge(endpoint + ":" + sample.status(), 1L, Long::sum);
+                if (!succeeded(sample)) {
+                    endpointFailed++;
+                }
+            }
+            Collections.sort(latencies);
+            all.addAll(latencies);
+            failed += endpointFailed;
+            System.out.printf("%-9s n=%d échecs=%d p50=%s p95=%s p99=%s%n", endpoint, latencies.size(), endpointFailed,
+                    millis(latencies, 0.50), millis(latencies, 0.95), millis(latencies, 0.99));
+        }
+        Collections.sort(all);
+        System.out.printf("TOTAL     %.0f req/s (%.0f réussies/s) échecs=%.2f %% p50=%s p95=%s p99=%s%n",
+                all.size() / seconds, (all.size() - failed) / seconds, 100.0 * failed / Math.max(1, all.size()),
+                millis(all, 0.50), millis(all, 0.95), millis(all, 0.99));
+        System.out.println("Statuts : " + statuses);
+
+        double acquisitions = after.value("hikaricp_connections_acquire_seconds_count")
+                - before.value("hikaricp_connections_acquire_seconds_count");
+        double waited = after.value("hikaricp_connections_acquire_seconds_sum")
+                - before.value("hikaricp_connections_acquire_seconds_sum");
+        System.out.printf("Hikari    attente moyenne=%.2f s max=%.1f s en attente (max)=%d timeouts=%.0f%n",
+                acquisitions == 0 ? 0 : waited / acquisitions, after.value("hikaricp_connections_acquire_seconds_max"),
+                sampler.maxPending.get(),
+                after.value("hikaricp_connections_timeout_total") - before.value("hikaricp_connections_timeout_total"));
+        System.out.printf("JVM       threads de plateforme (max)=%d%n", sampler.maxLiveThreads.get());
+    }
+
+    static String millis(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return "-";
+        }
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(quantile * sorted.size()) - 1);
+        return String.format("%.1fms", sorted.get(Math.max(0, index)) / 1e6);
+    }
+
+    static void sleepUntil(long nanoTime) {
+        try {
+            while (System.nanoTime() < nanoTime) {
+                Thread.sleep(Math.max(1, Math.min(200, (nanoTime - System.nanoTime()) / 1_000_000)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Somme, par nom de métrique, des séries exposées au format Prometheus (toutes étiquettes confondues)
+     */
+    record Metrics(Map<String, Double> values) {
+
+        static Metrics scrape(HttpClient client) {
+            Map<String, Double> values = new ConcurrentHashMap<>();
+            try {
+                String body = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/actuator/prometheus")).build(),
+                        HttpResponse.BodyHandlers.ofString()).body();
+                for (String line : body.split("\n")) {
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    int nameEnd = line.indexOf('{') >= 0 ? line.indexOf('{') : line.indexOf(' ');
+                    String value = line.substring(line.lastIndexOf(' ') + 1);
+                    values.merge(line.substring(0, nameEnd), Double.parseDouble(value), Double::sum);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("Relevé des métriques impossible : " + e.getMessage());
+            }
+            return new Metrics(values);
+        }
+
+        double value(String name) {
+            return values.getOrDefault(name, 0.0);
+        }
+    }
+
+    /**
+     * Relève chaque seconde les connexions en attente et le nombre de threads de plateforme de l'application
+     */
+    static final class MetricsSampler {
+
+        final AtomicLong maxPending = new AtomicLong();
+        final AtomicLong maxLiveThreads = new AtomicLong();
+        private final HttpClient client;
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private Thread thread;
+
+        MetricsSampler(HttpClient client) {
+            this.client = client;
+        }
+
+        void start() {
+            thread = Thread.ofPlatform().daemon().start(() -> {
+                while (running.get()) {
+                    Metrics metrics = Metrics.scrape(client);
+                    maxPending.accumulateAndGet((long) metrics.value("hikaricp_connections_pending"), Math::max);
+                    maxLiveThreads.accumulateAndGet((long) metrics.value("jvm_threads_live_threads"), Math::max);
+                    sleepUntil(System.nanoTime() + 1_000_000_000L);
+                }
+            });
+        }
+
+        void stop() throws InterruptedException {
+            running.set(false);
+            thread.join();
+        }
+    }
+}
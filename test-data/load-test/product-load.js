@@ -0,0 +1,48 @@
+// Test de charge k6 : lecture par ID, liste paginée et mouvements de stock à forte concurrence.
+// Usage : k6 run -e BASE_URL=http://localhost:8080 -e VUS=2000 test-data/load-test/product-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '2000', 10);
+const MAX_ID = parseInt(__ENV.MAX_ID || '10000', 10);
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{endpoint:get-by-id}': ['p(99)<500'],
+    },
+};
+
+function randomId() {
+    return 1 + Math.floor(Math.random() * MAX_ID);
+}
+
+export default function () {
+    const roll = Math.random();
+    if (roll < 0.7) {
+        const res = http.get(`${BASE_URL}/api/v1/products/${randomId()}`, { tags: { endpoint: 'get-by-id' } });
+        check(res, { 'get-by-id 200/404': (r) => r.status === 200 || r.status === 404 });
+    } else if (roll < 0.9) {
+        const page = Math.floor(Math.random() * 50);
+        const res = http.get(`${BASE_URL}/api/v1/products?page=${page}&size=20`, { tags: { endpoint: 'page' } });
+        check(res, { 'page 200': (r) => r.status === 200 });
+    } else {
+        const res = http.patch(`${BASE_URL}/api/v1/products/${randomId()}/stock/increase`,
+            JSON.stringify({ quantity: 1 }),
+            { headers: { 'Content-Type': 'application/json' }, tags: { endpoint: 'stock' } });
+        check(res, { 'stock 200/404': (r) => r.status === 200 || r.status === 404 });
+    }
+}